@@ -0,0 +1,85 @@
+package com.bytesfield.schedula.config;
+
+import com.bytesfield.schedula.models.enums.TaskPriority;
+import com.bytesfield.schedula.scheduler.TaskTimer;
+import com.bytesfield.schedula.scheduler.executors.BoundedTaskExecutor;
+import com.bytesfield.schedula.scheduler.timers.HierarchicalTimingWheel;
+import com.bytesfield.schedula.scheduler.timers.TaskSchedulerTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class SchedulerConfig {
+
+    /**
+     * Executor lane timer expiries are queued on, after the lanes of the task priorities.
+     */
+    public static final int TIMER_EXPIRY_LANE = TaskPriority.values().length;
+
+    @Value("${scheduler.wheel.tick-millis:100}")
+    private long wheelTickMillis;
+
+    @Value("${scheduler.wheel.size:512}")
+    private int wheelSize;
+
+    @Value("${scheduler.wheel.levels:4}")
+    private int wheelLevels;
+
+    @Value("${scheduler.execution.mode:virtual}")
+    private String executionMode;
+
+    @Value("${scheduler.execution.max-concurrency:200}")
+    private int executionMaxConcurrency;
+
+    @Value("${scheduler.execution.queue-capacity:100000}")
+    private int executionQueueCapacity;
+
+    @Value("${scheduler.execution.timer-expiry-weight:4}")
+    private int timerExpiryWeight;
+
+    /**
+     * Executor fired tasks run on, so timers only detect expiry and never block on a notification.
+     * Uses a virtual thread per task by default, or a fixed platform pool with scheduler.execution.mode=platform.
+     * Queued tasks wait in one lane per {@link TaskPriority}, weighted like the dispatch; timer expiries have a lane
+     * of their own after those, so loading fired tasks does not compete with critical tasks for their share.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public BoundedTaskExecutor taskExecutionExecutor(MeterRegistry meterRegistry) {
+        ExecutorService delegate = "platform".equalsIgnoreCase(executionMode)
+                ? Executors.newFixedThreadPool(executionMaxConcurrency, new CustomizableThreadFactory("schedula-task-"))
+                : Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("schedula-task-", 0).factory());
+
+        int[] laneWeights = Arrays.copyOf(TaskPriority.weights(), TIMER_EXPIRY_LANE + 1);
+        laneWeights[TIMER_EXPIRY_LANE] = timerExpiryWeight;
+
+        return new BoundedTaskExecutor("task-execution", delegate, executionMaxConcurrency, executionQueueCapacity,
+                laneWeights, meterRegistry);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(name = "scheduler.engine", havingValue = "wheel", matchIfMissing = true)
+    public TaskTimer timingWheelTaskTimer(BoundedTaskExecutor taskExecutionExecutor) {
+        return new HierarchicalTimingWheel(wheelTickMillis, wheelSize, wheelLevels,
+                timerExpiryExecutor(taskExecutionExecutor));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "scheduler.engine", havingValue = "task-scheduler")
+    public TaskTimer taskSchedulerTaskTimer(TaskScheduler taskScheduler, BoundedTaskExecutor taskExecutionExecutor) {
+        return new TaskSchedulerTimer(taskScheduler, timerExpiryExecutor(taskExecutionExecutor));
+    }
+
+    private static Executor timerExpiryExecutor(BoundedTaskExecutor taskExecutionExecutor) {
+        return command -> taskExecutionExecutor.execute(command, TIMER_EXPIRY_LANE);
+    }
+}
@@ -15,9 +15,12 @@ public class RabbitMQTemplateConfig {
         this.objectMapper = objectMapper;
     }
 
+    /**
+     * JSON for every message except task references, which use a compact binary format.
+     */
     @Bean
-    public MessageConverter jsonMessageConverter() {
-        return new Jackson2JsonMessageConverter(objectMapper);
+    public MessageConverter messageConverter() {
+        return new TaskRefMessageConverter(new Jackson2JsonMessageConverter(objectMapper));
     }
 
     @Bean
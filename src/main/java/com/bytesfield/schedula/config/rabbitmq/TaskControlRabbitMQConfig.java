@@ -0,0 +1,34 @@
+package com.bytesfield.schedula.config.rabbitmq;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Every node binds its own exclusive, auto-delete queue to a fanout exchange, so a control message reaches
+ * whichever node holds the timer of a task.
+ */
+@Configuration
+public class TaskControlRabbitMQConfig {
+
+    public static final String EXCHANGE = "task.control.exchange";
+
+    @Bean
+    public Binding taskControlBinding(Queue taskControlQueue, FanoutExchange taskControlExchange) {
+        return BindingBuilder.bind(taskControlQueue).to(taskControlExchange);
+    }
+
+    @Bean
+    public Queue taskControlQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public FanoutExchange taskControlExchange() {
+        return new FanoutExchange(EXCHANGE);
+    }
+}
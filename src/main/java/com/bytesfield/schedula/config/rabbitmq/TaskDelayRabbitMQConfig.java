@@ -0,0 +1,89 @@
+package com.bytesfield.schedula.config.rabbitmq;
+
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tiered delay queues for broker-side delayed delivery (scheduler.delivery.mode=broker).
+ * <p>
+ * Each tier queue holds messages for a fixed TTL and then dead-letters them to the router queue. The router sends a
+ * message on to the largest tier that still fits its remaining delay, or to the task queue once less than the
+ * smallest tier is left. A fixed TTL per queue keeps every tier FIFO, so no message waits behind a longer one.
+ */
+@Configuration
+@ConditionalOnProperty(name = "scheduler.delivery.mode", havingValue = "broker")
+public class TaskDelayRabbitMQConfig {
+
+    public static final String EXCHANGE = "task.delay.exchange";
+    public static final String ROUTER_QUEUE = "task.delay.router";
+    public static final String ROUTER_ROUTING_KEY = "task.delay.route";
+
+    // Largest first
+    public static final List<DelayTier> TIERS = List.of(
+            new DelayTier("task.delay.1h", 3_600_000),
+            new DelayTier("task.delay.10m", 600_000),
+            new DelayTier("task.delay.1m", 60_000),
+            new DelayTier("task.delay.10s", 10_000),
+            new DelayTier("task.delay.1s", 1_000)
+    );
+
+    /**
+     * Returns the largest tier not longer than the remaining delay, or null when the message is due.
+     */
+    public static DelayTier tierFor(long remainingMillis) {
+        for (DelayTier tier : TIERS) {
+            if (tier.ttlMillis() <= remainingMillis) {
+                return tier;
+            }
+        }
+
+        return null;
+    }
+
+    @Bean
+    public DirectExchange taskDelayExchange() {
+        return new DirectExchange(EXCHANGE);
+    }
+
+    @Bean
+    public Queue taskDelayRouterQueue() {
+        return new Queue(ROUTER_QUEUE, true);
+    }
+
+    @Bean
+    public Binding taskDelayRouterBinding(Queue taskDelayRouterQueue, DirectExchange taskDelayExchange) {
+        return BindingBuilder.bind(taskDelayRouterQueue).to(taskDelayExchange).with(ROUTER_ROUTING_KEY);
+    }
+
+    @Bean
+    public Declarables taskDelayTiers(DirectExchange taskDelayExchange) {
+        List<Declarable> declarables = new ArrayList<>();
+
+        for (DelayTier tier : TIERS) {
+            Queue queue = QueueBuilder.durable(tier.queue())
+                    .ttl((int) tier.ttlMillis())
+                    .deadLetterExchange(EXCHANGE)
+                    .deadLetterRoutingKey(ROUTER_ROUTING_KEY)
+                    .build();
+
+            declarables.add(queue);
+            declarables.add(BindingBuilder.bind(queue).to(taskDelayExchange).with(tier.queue()));
+        }
+
+        return new Declarables(declarables);
+    }
+
+    public record DelayTier(String queue, long ttlMillis) {
+    }
+}
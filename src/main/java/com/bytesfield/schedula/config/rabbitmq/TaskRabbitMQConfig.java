@@ -1,9 +1,15 @@
 package com.bytesfield.schedula.config.rabbitmq;
 
+import com.bytesfield.schedula.models.enums.TaskPriority;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.DirectExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -19,13 +25,46 @@ public class TaskRabbitMQConfig {
         return BindingBuilder.bind(taskQueue).to(taskExchange).with(ROUTING_KEY);
     }
 
+    /**
+     * Priority queue, so high-priority tasks overtake a backlog of low-priority ones waiting in the broker.
+     * RabbitMQ cannot change the arguments of an existing queue: a task.queue declared without x-max-priority has
+     * to be deleted once before upgrading. Its tasks are republished from the database by the rehydration.
+     */
     @Bean
     public Queue taskQueue() {
-        return new Queue(QUEUE, true);
+        return QueueBuilder.durable(QUEUE)
+                .maxPriority(TaskPriority.MAX_AMQP_PRIORITY)
+                .build();
     }
 
     @Bean
     public DirectExchange taskExchange() {
         return new DirectExchange(EXCHANGE);
     }
+
+    /**
+     * Batch consumer for the task queue: the listener gets up to batch-size messages at once, or what arrived until
+     * no message came for receive-timeout-ms.
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory taskBatchListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+            @Value("${scheduler.consumer.batch-size:200}") int batchSize,
+            @Value("${scheduler.consumer.receive-timeout-ms:100}") long receiveTimeoutMillis,
+            @Value("${scheduler.consumer.prefetch:500}") int prefetch,
+            @Value("${scheduler.consumer.concurrency:2}") int concurrency,
+            @Value("${scheduler.consumer.max-concurrency:4}") int maxConcurrency) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(receiveTimeoutMillis);
+        factory.setPrefetchCount(Math.max(prefetch, batchSize));
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(Math.max(concurrency, maxConcurrency));
+
+        return factory;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.bytesfield.schedula.config.rabbitmq;
+
+import com.bytesfield.schedula.dtos.TaskRefMessage;
+import com.bytesfield.schedula.dtos.requests.TaskResponse;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes {@link TaskRefMessage} as 21 bytes: a format byte, then the task id, version and due epoch millis.
+ * Every other type goes through the delegate converter.
+ * <p>
+ * Task messages used to be a JSON TaskResponse. While such messages may still be queued, a JSON message read as a
+ * TaskRefMessage is decoded as a TaskResponse and converted, with an unknown version.
+ */
+public class TaskRefMessageConverter implements MessageConverter {
+
+    public static final String CONTENT_TYPE = "application/vnd.schedula.task-ref";
+
+    private static final byte FORMAT = 1;
+    private static final int SIZE = 1 + Integer.BYTES + Long.BYTES + Long.BYTES;
+
+    private final MessageConverter delegate;
+
+    public TaskRefMessageConverter(MessageConverter delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) {
+        if (!(object instanceof TaskRefMessage ref)) {
+            return delegate.toMessage(object, messageProperties);
+        }
+
+        byte[] body = ByteBuffer.allocate(SIZE)
+                .put(FORMAT)
+                .putInt(ref.getTaskId())
+                .putLong(ref.getVersion())
+                .putLong(ref.getDueAtMillis())
+                .array();
+
+        messageProperties.setContentType(CONTENT_TYPE);
+        messageProperties.setContentLength(SIZE);
+
+        return new Message(body, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        MessageProperties properties = message.getMessageProperties();
+
+        if (CONTENT_TYPE.equals(properties.getContentType())) {
+            return decode(message.getBody());
+        }
+
+        if (properties.getInferredArgumentType() == TaskRefMessage.class) {
+            properties.setInferredArgumentType(TaskResponse.class);
+
+            if (delegate.fromMessage(message) instanceof TaskResponse legacy) {
+                return new TaskRefMessage(legacy.getId(), TaskRefMessage.UNKNOWN_VERSION,
+                        legacy.getTriggerTime() != null ? legacy.getTriggerTime().toEpochMilli() : TaskRefMessage.NO_DUE_TIME);
+            }
+
+            throw new MessageConversionException("Cannot read a task reference from content type " + properties.getContentType());
+        }
+
+        return delegate.fromMessage(message);
+    }
+
+    private static TaskRefMessage decode(byte[] body) {
+        if (body.length != SIZE || body[0] != FORMAT) {
+            throw new MessageConversionException("Unsupported task reference message of " + body.length + " byte(s)");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(body, 1, SIZE - 1);
+
+        return new TaskRefMessage(buffer.getInt(), buffer.getLong(), buffer.getLong());
+    }
+}
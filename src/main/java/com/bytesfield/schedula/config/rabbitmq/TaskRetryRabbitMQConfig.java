@@ -0,0 +1,34 @@
+package com.bytesfield.schedula.config.rabbitmq;
+
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Retries of failed executions use their own queue, so a burst of retries never queues up in front of first runs.
+ */
+@Configuration
+public class TaskRetryRabbitMQConfig {
+
+    public static final String QUEUE = "task.retry.queue";
+    public static final String EXCHANGE = "task.retry.exchange";
+    public static final String ROUTING_KEY = "task.retry";
+
+    @Bean
+    public Binding taskRetryBinding(Queue taskRetryQueue, DirectExchange taskRetryExchange) {
+        return BindingBuilder.bind(taskRetryQueue).to(taskRetryExchange).with(ROUTING_KEY);
+    }
+
+    @Bean
+    public Queue taskRetryQueue() {
+        return new Queue(QUEUE, true);
+    }
+
+    @Bean
+    public DirectExchange taskRetryExchange() {
+        return new DirectExchange(EXCHANGE);
+    }
+}
@@ -55,6 +55,20 @@ public class TaskController {
         return ResponseEntity.ok(new ApiResponse<>("Task updated successfully.", taskResponse));
     }
 
+    @PatchMapping("/{id}/pause")
+    public ResponseEntity<ApiResponse<TaskResponse>> pauseTask(@PathVariable @Positive int id, @AuthenticationPrincipal UserDetails userDetail) {
+        TaskResponse taskResponse = taskService.pauseTask(userDetail, id);
+
+        return ResponseEntity.ok(new ApiResponse<>("Task paused successfully.", taskResponse));
+    }
+
+    @PatchMapping("/{id}/resume")
+    public ResponseEntity<ApiResponse<TaskResponse>> resumeTask(@PathVariable @Positive int id, @AuthenticationPrincipal UserDetails userDetail) {
+        TaskResponse taskResponse = taskService.resumeTask(userDetail, id);
+
+        return ResponseEntity.ok(new ApiResponse<>("Task resumed successfully.", taskResponse));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<Object>> deleteTask(@PathVariable @Positive int id, @AuthenticationPrincipal UserDetails userDetail) {
         taskService.deleteTask(userDetail, id);
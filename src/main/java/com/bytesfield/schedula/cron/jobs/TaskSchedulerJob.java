@@ -1,16 +1,21 @@
 package com.bytesfield.schedula.cron.jobs;
 
-import com.bytesfield.schedula.dtos.requests.TaskResponse;
-import com.bytesfield.schedula.models.entities.Task;
-import com.bytesfield.schedula.producers.ScheduleTaskProducer;
+import com.bytesfield.schedula.models.DueTaskRef;
+import com.bytesfield.schedula.models.enums.TaskStatus;
 import com.bytesfield.schedula.repositories.TaskRepository;
-import com.bytesfield.schedula.utils.mappers.TaskMapper;
+import com.bytesfield.schedula.scheduler.DueTaskIndex;
+import com.bytesfield.schedula.scheduler.PartitionCoordinator;
+import com.bytesfield.schedula.scheduler.PartitionsRebalancedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 @Service
@@ -19,19 +24,124 @@ import java.util.List;
 public class TaskSchedulerJob {
 
     private final TaskRepository taskRepository;
-    private final ScheduleTaskProducer scheduleTaskProducer;
-    private final TaskMapper taskMapper;
+    private final DueTaskIndex dueTaskIndex;
+    private final PartitionCoordinator partitionCoordinator;
 
-    @Scheduled(fixedRate = 30000) // Check every 30 seconds
-    public void scheduleTasks() {
-        List<Task> dueTasks = taskRepository.findDueTasks(Instant.now());
+    private static final List<TaskStatus> ACTIVE_STATUSES = List.of(TaskStatus.PENDING, TaskStatus.PROCESSING);
 
-        dueTasks.forEach(task -> {
-            TaskResponse taskResponse = taskMapper.toResponse(task);
-            
-            scheduleTaskProducer.sendTask(taskResponse);
+    @Value("${scheduler.index.lookahead-seconds:300}")
+    private long lookaheadSeconds;
 
-            taskRepository.markAsQueued(task.getId());
-        });
+    @Value("${scheduler.index.refill-interval-ms:60000}")
+    private long refillIntervalMillis;
+
+    @Value("${scheduler.index.max-idle-interval-ms:600000}")
+    private long maxIdleIntervalMillis;
+
+    private volatile Instant nextRefillAt = Instant.EPOCH;
+
+    /**
+     * Refills the index once the next refill is due. The check itself does not touch the database, so the
+     * precision only bounds how late a refill can start.
+     */
+    @Scheduled(fixedDelayString = "${scheduler.index.refill-precision-ms:1000}")
+    public void refillWhenDue() {
+        if (!Instant.now().isBefore(nextRefillAt)) {
+            refillDueTaskIndex();
+        }
+    }
+
+    /**
+     * Extends the due-task index with tasks due in the next lookahead window, limited to the partitions this node owns.
+     * Only the slice between the previous window end and the new one is queried.
+     * <p>
+     * When a probe for the earliest due task after the window shows the slice is empty, the window is extended up to
+     * that task (at most max-idle-interval ahead) without loading anything, and the next refill is put off until it
+     * enters the lookahead window. Tasks created or moved inside the extended window, on any node, are offered to this
+     * node's index by DueTaskNotifier; the overdue sweep covers an offer broadcast that was lost.
+     */
+    public synchronized void refillDueTaskIndex() {
+        List<Integer> partitions = partitionCoordinator.getOwnedPartitions();
+
+        if (partitions.isEmpty()) {
+            return;
+        }
+
+        int partitionCount = partitionCoordinator.getPartitionCount();
+        Instant now = Instant.now();
+        Instant windowStart = dueTaskIndex.getWindowEnd();
+        Instant windowEnd = now.plusSeconds(lookaheadSeconds);
+
+        if (windowStart != null) {
+            Instant earliest = findEarliestDueAfter(windowStart, partitionCount, partitions);
+
+            if (earliest == null || earliest.isAfter(windowEnd)) {
+                extendEmptyWindow(earliest, windowEnd.plusMillis(maxIdleIntervalMillis));
+                return;
+            }
+        }
+
+        List<DueTaskRef> dueTasks = windowStart == null
+                ? taskRepository.findDueTaskRefsUntil(windowEnd, partitionCount, partitions)
+                : taskRepository.findDueTaskRefsBetween(windowStart, windowEnd, partitionCount, partitions);
+
+        dueTaskIndex.load(dueTasks, windowEnd);
+        nextRefillAt = now.plusMillis(refillIntervalMillis);
+
+        log.debug("Due-task index refilled with {} task(s) up to {}", dueTasks.size(), windowEnd);
+    }
+
+    private Instant findEarliestDueAfter(Instant after, int partitionCount, List<Integer> partitions) {
+        Instant earliest = null;
+
+        for (TaskStatus status : ACTIVE_STATUSES) {
+            List<Instant> next = taskRepository.findNextDueAfter(status, after, partitionCount, partitions,
+                    PageRequest.of(0, 1));
+
+            if (!next.isEmpty() && (earliest == null || next.getFirst().isBefore(earliest))) {
+                earliest = next.getFirst();
+            }
+        }
+
+        return earliest;
+    }
+
+    private void extendEmptyWindow(Instant earliest, Instant maxWindowEnd) {
+        // The slice query excludes its start, so the earliest task stays in the next one
+        Instant windowEnd = earliest == null || earliest.isAfter(maxWindowEnd)
+                ? maxWindowEnd
+                : earliest.minus(1, ChronoUnit.MICROS);
+
+        dueTaskIndex.load(List.of(), windowEnd);
+        nextRefillAt = windowEnd.minusSeconds(lookaheadSeconds);
+
+        log.debug("No task due before {}, next due-task index refill at {}", windowEnd, nextRefillAt);
+    }
+
+    /**
+     * Safety net for overdue tasks whose due time was changed on another node inside an already loaded window and
+     * whose offer broadcast was lost.
+     */
+    @Scheduled(fixedDelayString = "${scheduler.index.sweep-interval-ms:300000}", initialDelayString = "${scheduler.index.sweep-interval-ms:300000}")
+    public void sweepOverdueTasks() {
+        List<Integer> partitions = partitionCoordinator.getOwnedPartitions();
+
+        if (partitions.isEmpty()) {
+            return;
+        }
+
+        List<DueTaskRef> overdueTasks = taskRepository.findDueTaskRefsUntil(Instant.now(), partitionCoordinator.getPartitionCount(), partitions);
+
+        dueTaskIndex.load(overdueTasks, null);
+    }
+
+    /**
+     * Reloads the index from scratch when partitions move, so newly acquired partitions are covered right away.
+     */
+    @EventListener
+    public synchronized void onPartitionsRebalanced(PartitionsRebalancedEvent event) {
+        dueTaskIndex.reset();
+
+        refillDueTaskIndex();
     }
 }
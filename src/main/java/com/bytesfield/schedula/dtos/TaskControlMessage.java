@@ -0,0 +1,23 @@
+package com.bytesfield.schedula.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Broadcast to every node when a task changes. A cancellation tells nodes that timers armed for a version below
+ * minVersion must not fire; an offer, which carries dueAtMillis, tells the node owning the task's partition to offer
+ * the task to its due-task index.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskControlMessage {
+    private int taskId;
+    private long minVersion;
+
+    /**
+     * The task's new due time for an offer, null for a cancellation.
+     */
+    private Long dueAtMillis;
+}
@@ -0,0 +1,35 @@
+package com.bytesfield.schedula.dtos;
+
+import com.bytesfield.schedula.models.entities.Task;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A task published for scheduling. Only identifies the task, which the listener reloads anyway; sent in the fixed-size
+ * binary format of {@link com.bytesfield.schedula.config.rabbitmq.TaskRefMessageConverter}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskRefMessage {
+
+    /**
+     * Version of messages converted from the JSON format, which did not carry one.
+     */
+    public static final long UNKNOWN_VERSION = -1;
+
+    /**
+     * Due time of tasks without a next run.
+     */
+    public static final long NO_DUE_TIME = Long.MIN_VALUE;
+
+    private int taskId;
+    private long version;
+    private long dueAtMillis;
+
+    public static TaskRefMessage of(Task task) {
+        return new TaskRefMessage(task.getId(), task.getVersion(),
+                task.getNextRunAt() != null ? task.getNextRunAt().toEpochMilli() : NO_DUE_TIME);
+    }
+}
@@ -0,0 +1,16 @@
+package com.bytesfield.schedula.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A due retry of a failed task, released by the retry dispatcher. Ignored if the task changed since.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskRetryMessage {
+    private int taskId;
+    private long version;
+}
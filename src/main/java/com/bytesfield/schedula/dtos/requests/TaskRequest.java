@@ -1,7 +1,10 @@
 package com.bytesfield.schedula.dtos.requests;
 
+import com.bytesfield.schedula.models.enums.ConcurrencyPolicy;
+import com.bytesfield.schedula.models.enums.MisfirePolicy;
 import com.bytesfield.schedula.models.enums.NotificationType;
 import com.bytesfield.schedula.models.enums.ScheduleType;
+import com.bytesfield.schedula.models.enums.TaskPriority;
 import com.bytesfield.schedula.models.enums.TaskType;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.validation.constraints.*;
@@ -38,7 +41,29 @@ public class TaskRequest {
     @NotNull(message = "Payload is required")
     private Map<String, Object> payload;
 
+    private TaskPriority priority;
+
+    private MisfirePolicy misfirePolicy;
+
+    private ConcurrencyPolicy concurrencyPolicy;
+
+    @Min(value = 0, message = "Spread window cannot be negative")
+    @Max(value = 3600, message = "Spread window cannot exceed 3600 seconds")
+    private Integer spreadWindowSeconds;
+
     @Min(value = 1, message = "Retries must be at least 1")
     @Max(value = 10, message = "Retries cannot exceed 10")
     private Integer maxRetries = 3;
+
+    @Min(value = 1, message = "Retry backoff must be at least 1 second")
+    @Max(value = 3600, message = "Retry backoff cannot exceed 3600 seconds")
+    private Integer retryBackoffSeconds;
+
+    @Min(value = 60, message = "Retry max age must be at least 60 seconds")
+    @Max(value = 604800, message = "Retry max age cannot exceed 7 days")
+    private Integer retryMaxAgeSeconds;
+
+    @Min(value = 1, message = "Execution timeout must be at least 1 second")
+    @Max(value = 3600, message = "Execution timeout cannot exceed 3600 seconds")
+    private Integer executionTimeoutSeconds;
 }
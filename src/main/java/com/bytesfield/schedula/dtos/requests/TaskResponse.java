@@ -1,5 +1,8 @@
 package com.bytesfield.schedula.dtos.requests;
 
+import com.bytesfield.schedula.models.enums.ConcurrencyPolicy;
+import com.bytesfield.schedula.models.enums.MisfirePolicy;
+import com.bytesfield.schedula.models.enums.TaskPriority;
 import com.bytesfield.schedula.models.enums.TaskStatus;
 import com.bytesfield.schedula.models.enums.TaskType;
 import com.fasterxml.jackson.annotation.JsonInclude;
@@ -22,6 +25,9 @@ public class TaskResponse {
     private Instant triggerTime;
     private Map<String, Object> payload;
     private TaskStatus status;
+    private TaskPriority priority;
+    private MisfirePolicy misfirePolicy;
+    private ConcurrencyPolicy concurrencyPolicy;
     private int retryCount;
     private Instant createdAt;
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.bytesfield.schedula.listeners;
+
+import com.bytesfield.schedula.config.rabbitmq.TaskDelayRabbitMQConfig;
+import com.bytesfield.schedula.producers.ScheduleTaskProducer;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves task messages released by a delay tier on to the next tier or the task queue. Holds no state, so any node
+ * can route any message.
+ */
+@Component
+@ConditionalOnProperty(name = "scheduler.delivery.mode", havingValue = "broker")
+public class DelayedTaskRouter {
+
+    private final ScheduleTaskProducer scheduleTaskProducer;
+
+    public DelayedTaskRouter(ScheduleTaskProducer scheduleTaskProducer) {
+        this.scheduleTaskProducer = scheduleTaskProducer;
+    }
+
+    @RabbitListener(queues = TaskDelayRabbitMQConfig.ROUTER_QUEUE)
+    public void route(Message message) {
+        scheduleTaskProducer.forwardDelayedTask(message);
+    }
+}
@@ -1,59 +1,208 @@
 package com.bytesfield.schedula.listeners;
 
 import com.bytesfield.schedula.config.rabbitmq.TaskRabbitMQConfig;
-import com.bytesfield.schedula.dtos.requests.TaskResponse;
+import com.bytesfield.schedula.config.rabbitmq.TaskRetryRabbitMQConfig;
+import com.bytesfield.schedula.dtos.TaskRefMessage;
+import com.bytesfield.schedula.dtos.TaskRetryMessage;
 import com.bytesfield.schedula.models.entities.Notification;
 import com.bytesfield.schedula.models.entities.Task;
 import com.bytesfield.schedula.models.enums.NotificationStatus;
 import com.bytesfield.schedula.models.enums.ScheduleType;
 import com.bytesfield.schedula.models.enums.TaskStatus;
 import com.bytesfield.schedula.models.enums.TaskType;
+import com.bytesfield.schedula.producers.ScheduleTaskProducer;
 import com.bytesfield.schedula.repositories.NotificationRepository;
 import com.bytesfield.schedula.repositories.TaskRepository;
+import com.bytesfield.schedula.scheduler.BrokerDelayedDelivery;
+import com.bytesfield.schedula.scheduler.CronTriggerGroups;
+import com.bytesfield.schedula.scheduler.DueTaskNotifier;
+import com.bytesfield.schedula.scheduler.ExecutionGuard;
+import com.bytesfield.schedula.scheduler.ExecutionWatchdog;
+import com.bytesfield.schedula.scheduler.FireReleasePacer;
+import com.bytesfield.schedula.scheduler.FireSpreader;
+import com.bytesfield.schedula.scheduler.FiredTaskBatcher;
+import com.bytesfield.schedula.scheduler.MisfireCatchUp;
+import com.bytesfield.schedula.scheduler.SchedulerNode;
+import com.bytesfield.schedula.scheduler.TaskMessageDeduplicator;
+import com.bytesfield.schedula.scheduler.TaskTimer;
+import com.bytesfield.schedula.scheduler.TenantWeights;
+import com.bytesfield.schedula.scheduler.TimerHandle;
+import com.bytesfield.schedula.scheduler.TimerRegistry;
+import com.bytesfield.schedula.scheduler.executors.BoundedTaskExecutor;
+import com.bytesfield.schedula.scheduler.retry.TaskRetryService;
 import com.bytesfield.schedula.services.NotificationService;
 import com.bytesfield.schedula.utils.TaskHelper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
 import org.springframework.scheduling.SchedulingException;
-import org.springframework.scheduling.TaskScheduler;
-import org.springframework.scheduling.support.CronTrigger;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @Component
 public class ScheduleTaskListener {
 
     private final NotificationRepository notificationRepository;
-    private final TaskScheduler taskScheduler;
+    private final TaskTimer taskTimer;
     private final NotificationService notificationService;
     private final TaskRepository taskRepository;
-
-    public ScheduleTaskListener(TaskScheduler taskScheduler,
+    private final DueTaskNotifier dueTaskNotifier;
+    private final SchedulerNode schedulerNode;
+    private final TimerRegistry timerRegistry;
+    private final FiredTaskBatcher firedTaskBatcher;
+    private final FireSpreader fireSpreader;
+    private final CronTriggerGroups cronTriggerGroups;
+    private final BrokerDelayedDelivery brokerDelayedDelivery;
+    private final TaskRetryService taskRetryService;
+    private final MisfireCatchUp misfireCatchUp;
+    private final ExecutionGuard executionGuard;
+    private final ExecutionWatchdog executionWatchdog;
+    private final TaskMessageDeduplicator taskMessageDeduplicator;
+
+    public ScheduleTaskListener(TaskTimer taskTimer,
                                 NotificationRepository notificationRepository,
-                                NotificationService notificationService, TaskRepository taskRepository) {
-        this.taskScheduler = taskScheduler;
+                                NotificationService notificationService, TaskRepository taskRepository,
+                                DueTaskNotifier dueTaskNotifier, SchedulerNode schedulerNode, TimerRegistry timerRegistry,
+                                BoundedTaskExecutor taskExecutionExecutor, FireSpreader fireSpreader,
+                                FireReleasePacer fireReleasePacer, CronTriggerGroups cronTriggerGroups,
+                                BrokerDelayedDelivery brokerDelayedDelivery, TaskRetryService taskRetryService,
+                                TenantWeights tenantWeights, MisfireCatchUp misfireCatchUp,
+                                ExecutionGuard executionGuard, ExecutionWatchdog executionWatchdog,
+                                TaskMessageDeduplicator taskMessageDeduplicator,
+                                @Value("${scheduler.fire.batch-size:200}") int fireBatchSize,
+                                @Value("${scheduler.fire.rejected-retry-ms:1000}") long fireRejectedRetryMillis) {
+        this.taskTimer = taskTimer;
         this.notificationRepository = notificationRepository;
         this.notificationService = notificationService;
         this.taskRepository = taskRepository;
+        this.dueTaskNotifier = dueTaskNotifier;
+        this.schedulerNode = schedulerNode;
+        this.timerRegistry = timerRegistry;
+        this.fireSpreader = fireSpreader;
+        this.cronTriggerGroups = cronTriggerGroups;
+        this.brokerDelayedDelivery = brokerDelayedDelivery;
+        this.taskRetryService = taskRetryService;
+        this.misfireCatchUp = misfireCatchUp;
+        this.executionGuard = executionGuard;
+        this.executionWatchdog = executionWatchdog;
+        this.taskMessageDeduplicator = taskMessageDeduplicator;
+        this.firedTaskBatcher = new FiredTaskBatcher(taskRepository, timerRegistry, taskExecutionExecutor,
+                fireReleasePacer, this::safelyExecuteTask, tenantWeights, dueTaskNotifier, fireBatchSize,
+                fireRejectedRetryMillis);
 
     }
 
-    @RabbitListener(queues = TaskRabbitMQConfig.QUEUE)
-    public void listen(TaskResponse taskResponse) {
-        int taskId = taskResponse.getId();
-        log.info("📩 Received task ID={} for scheduling", taskId);
+    /**
+     * Schedules a batch of published tasks. Duplicate deliveries are dropped first; the remaining tasks are loaded with
+     * their users in one query, and the ones armed here are marked as queued with one bulk update.
+     */
+    @RabbitListener(queues = TaskRabbitMQConfig.QUEUE, containerFactory = "taskBatchListenerContainerFactory")
+    public void listen(List<Message<TaskRefMessage>> messages) {
+        List<TaskRefMessage> delivered = taskMessageDeduplicator.retainFirstDeliveries(
+                messages.stream().map(Message::getPayload).toList());
+
+        if (delivered.isEmpty()) {
+            log.info("⏭️ Dropped {} duplicate task message(s)", messages.size());
+            return;
+        }
+
+        try {
+            scheduleDelivered(messages, new HashSet<>(delivered));
+        } catch (RuntimeException e) {
+            taskMessageDeduplicator.failed(delivered);
+            throw e;
+        }
+
+        taskMessageDeduplicator.processed(delivered);
+    }
+
+    private void scheduleDelivered(List<Message<TaskRefMessage>> messages, Set<TaskRefMessage> delivered) {
+        // One entry per delivered message, so two versions of a task in the same batch each keep their own due time
+        Map<Integer, List<Long>> delayedUntilByTask = new LinkedHashMap<>();
+
+        for (Message<TaskRefMessage> message : messages) {
+            if (!delivered.contains(message.getPayload())) {
+                continue;
+            }
+
+            Object delayedUntil = message.getHeaders().get(ScheduleTaskProducer.DELAYED_UNTIL_HEADER);
+
+            delayedUntilByTask.computeIfAbsent(message.getPayload().getTaskId(), taskId -> new ArrayList<>())
+                    .add(delayedUntil instanceof Number millis ? millis.longValue() : null);
+        }
+
+        log.info("📩 Received {} task(s) for scheduling, {} duplicate message(s) dropped", delayedUntilByTask.size(),
+                messages.size() - delivered.size());
+
+        List<Task> tasks = taskRepository.findAllWithUserByIdIn(delayedUntilByTask.keySet());
+        List<Integer> queued = new ArrayList<>(tasks.size());
+
+        if (tasks.size() < delayedUntilByTask.size()) {
+            log.warn("{} task(s) not found. Discarding their messages.", delayedUntilByTask.size() - tasks.size());
+        }
+
+        for (Task task : tasks) {
+            if (isSchedulable(task, delayedUntilByTask.get(task.getId())) && scheduleTask(task)) {
+                queued.add(task.getId());
+            }
+        }
+
+        if (!queued.isEmpty()) {
+            taskRepository.markAllAsQueued(queued, schedulerNode.getNodeId());
+        }
+    }
 
-        Task task = getTask(taskId);
+    /**
+     * Whether a task is armed for its messages in a batch: a plain message always arms it, a delayed one only while
+     * the broker still holds the task for that due time. A task is armed at most once per batch.
+     */
+    private boolean isSchedulable(Task task, List<Long> delayedUntils) {
+        if (task.getStatus() == TaskStatus.PAUSED) {
+            log.info("⏸️ Task ID={} is paused, not scheduling it", task.getId());
+            return false;
+        }
 
-        if (task != null) {
-            scheduleTask(task);
+        if (delayedUntils.stream().noneMatch(delayedUntil -> delayedUntil == null
+                || brokerDelayedDelivery.isAwaitingRelease(task, delayedUntil))) {
+            log.info("⏭️ Discarding stale delayed message(s) for task ID={}", task.getId());
+            return false;
         }
+
+        return true;
     }
 
+    /**
+     * Runs a due retry released by the retry dispatcher, unless the task changed since.
+     */
+    @RabbitListener(queues = TaskRetryRabbitMQConfig.QUEUE)
+    public void listenRetry(TaskRetryMessage message) {
+        int taskId = message.getTaskId();
 
-    private void scheduleTask(Task task) {
+        if (taskRepository.takeOverRetry(taskId, message.getVersion(), schedulerNode.getNodeId()) == 0) {
+            log.info("⏭️ Discarding stale retry of task ID={}", taskId);
+            return;
+        }
+
+        log.info("📩 Received retry of task ID={}", taskId);
+
+        firedTaskBatcher.firedAll(List.of(firedTaskBatcher.newRef(taskId, message.getVersion(), Instant.now())));
+    }
+
+    /**
+     * Arms the timer of a task. The caller marks the task as queued.
+     *
+     * @return false if the task could not be scheduled and was marked as failed
+     */
+    private boolean scheduleTask(Task task) {
         try {
             TaskType type = task.getType();
 
@@ -67,34 +216,97 @@ public class ScheduleTaskListener {
                 log.warn("⚠️ Skipping task ID={} due to invalid configuration", taskId);
 
                 taskRepository.markAsFailed(taskId);
-                return;
+                return false;
             }
 
-            taskRepository.markAsQueued(taskId);
             log.info("⏳ Task ID={} scheduled successfully", task.getId());
 
-        } catch (SchedulingException e) {
+            return true;
+        } catch (SchedulingException | IllegalArgumentException e) {
             handleFailure(task, e);
+
+            return false;
         }
     }
 
     private void scheduleCronTask(Task task) {
-        taskScheduler.schedule(() -> safelyExecuteTask(task), new CronTrigger(task.getCronExpression()));
+        // Tasks created before cron fire times were persisted may not have one yet
+        if (task.getNextRunAt() == null) {
+            task.setNextRunAt(TaskHelper.nextCronRunAt(task.getCronExpression(), Instant.now()));
+        }
+
+        if (task.getNextRunAt() == null) {
+            throw new IllegalArgumentException("Cron expression has no future fire time for task ID=" + task.getId());
+        }
+
+        Instant fireAt = fireSpreader.spread(task, task.getNextRunAt());
+
+        // Unspread cron tasks share one timer per expression; the rest fall back to their own timer
+        TimerHandle handle = fireAt.equals(task.getNextRunAt())
+                ? cronTriggerGroups.join(task.getCronExpression(), task.getId(), task.getVersion(), fireAt, firedTaskBatcher)
+                : null;
+
+        if (handle == null) {
+            armTimer(task, fireAt);
+            return;
+        }
+
+        timerRegistry.register(task.getId(), task.getVersion(), handle);
     }
 
     private void scheduleTimestampTask(Task task) {
-        taskScheduler.schedule(() -> safelyExecuteTask(task), task.getNextRunAt());
+        armTimer(task, fireSpreader.spread(task, task.getNextRunAt()));
     }
 
+    /**
+     * The timer only holds a compact ref to the task; the current task is batch-loaded when it fires.
+     *
+     * @param fireAt the fire time, which for tasks with a spread window is their hashed offset after the nominal time
+     */
+    private void armTimer(Task task, Instant fireAt) {
+        TimerHandle handle = taskTimer.schedule(firedTaskBatcher.newRef(task.getId(), task.getVersion(), fireAt), fireAt);
+
+        timerRegistry.register(task.getId(), task.getVersion(), handle);
+    }
+
+    /**
+     * Runs a fired task under its concurrency policy, followed by any execution queued while it ran. Every run is
+     * watched by the {@link ExecutionWatchdog}, which hands it to {@link #onExecutionTimeout} once it is overdue.
+     */
     private void safelyExecuteTask(Task task) {
-        try {
-            executeTask(task);
-        } catch (Exception e) {
-            handleFailure(task, e);
+        if (!executionGuard.tryAcquire(task)) {
+            return;
         }
+
+        Task current = task;
+
+        while (current != null) {
+            ExecutionWatchdog.Watch watch = executionWatchdog.watch(current, this::onExecutionTimeout);
+
+            try {
+                executeTask(current, watch);
+            } catch (Exception e) {
+                if (watch.complete()) {
+                    handleExecutionFailure(current, e.getMessage());
+                } else if (!watch.isTimedOut()) {
+                    log.error("❌ Recording the delivered run of task ID={} failed, not retrying it: {}",
+                            current.getId(), e.getMessage(), e);
+                }
+            } finally {
+                executionWatchdog.finish(watch);
+            }
+
+            current = executionGuard.release(current);
+        }
+    }
+
+    private void onExecutionTimeout(ExecutionWatchdog.Watch watch) {
+        executionGuard.abandon(watch.getTask(), watch.getThread());
+
+        handleExecutionFailure(watch.getTask(), "Execution timed out after " + watch.getTimeoutSeconds() + "s");
     }
 
-    private void executeTask(Task task) {
+    private void executeTask(Task task, ExecutionWatchdog.Watch watch) {
         Notification notification = new Notification();
 
         if (task.getNotificationType() == null) {
@@ -110,11 +322,29 @@ public class ScheduleTaskListener {
 
         notificationService.sendNotification(savedNotification); //Sends the Notification
 
+        // Settles the run before anything is persisted, so a persistence failure below does not resend it
+        if (!watch.complete()) {
+            log.warn("⏰ Discarding the result of the timed-out run of task ID={}", task.getId());
+            return;
+        }
+
+        if (savedNotification.getStatus() == NotificationStatus.FAILED) {
+            handleExecutionFailure(task, savedNotification.getErrorMessage());
+            return;
+        }
+
+        taskRetryService.onSuccess();
+
         if (isOneTimeTask(task)) {
             completeTask(task);
             return;
         }
 
+        if (TaskHelper.isCronTask(task.getType())) {
+            scheduleNextCronRun(task);
+            return;
+        }
+
         retryTaskIfNeeded(task);
     }
 
@@ -124,14 +354,27 @@ public class ScheduleTaskListener {
         taskRepository.markAsFailed(task.getId());
     }
 
-    private Task getTask(int id) {
-        Task task = taskRepository.findByIdWithUser(id);
+    /**
+     * Parks a failed execution for a retry. Once retries are exhausted a cron task moves on to its next run and any
+     * other task is marked as failed.
+     */
+    private void handleExecutionFailure(Task task, String error) {
+        log.error("❌ Task execution failed: ID={}, Error={}", task.getId(), error);
 
-        if (task == null) {
-            log.warn("Task not found. Discarding message.");
-        }
+        try {
+            if (taskRetryService.onFailure(task, error)) {
+                return;
+            }
 
-        return task;
+            if (TaskHelper.isCronTask(task.getType())) {
+                scheduleNextCronRun(task);
+                return;
+            }
+
+            taskRepository.markAsFailed(task.getId());
+        } catch (Exception e) {
+            log.error("❌ Recording the failure of task ID={} failed: {}", task.getId(), e.getMessage(), e);
+        }
     }
 
     private void retryTaskIfNeeded(Task task) {
@@ -140,11 +383,10 @@ public class ScheduleTaskListener {
         int retryCount = task.getRetryCount();
 
         if (retryCount < maxRetries) {
-            task.setStatus(TaskStatus.PROCESSING);
-            task.setLastRunAt(task.getNextRunAt());
-            task.setRetryCount(retryCount + 1);
-            task.setNextRunAt(Instant.now().plusSeconds(delayInSeconds));
-            taskRepository.save(task);
+            Instant nextRunAt = Instant.now().plusSeconds(delayInSeconds);
+
+            taskRepository.scheduleRepeat(task.getId(), task.getNextRunAt(), nextRunAt);
+            dueTaskNotifier.offer(task.getId(), nextRunAt);
 
             int countLeft = maxRetries - retryCount;
 
@@ -156,14 +398,34 @@ public class ScheduleTaskListener {
         completeTask(task);
     }
 
+    /**
+     * Persists the next fire time of a recurring cron task and hands it back to the database-driven due index,
+     * so cron tasks survive restarts and are picked up exactly like one-shot tasks.
+     */
+    private void scheduleNextCronRun(Task task) {
+        Instant firedAt = task.getNextRunAt();
+        Instant nextRunAt = misfireCatchUp.nextCronRunAfterFire(task, firedAt);
+
+        if (nextRunAt == null) {
+            completeTask(task);
+            return;
+        }
+
+        taskRepository.scheduleNextRun(task.getId(), firedAt, nextRunAt);
+        dueTaskNotifier.offer(task.getId(), nextRunAt);
+
+        log.info("🔁 Cron task ID={} executed, next run at {}", task.getId(), nextRunAt);
+    }
+
     private boolean isOneTimeTask(Task task) {
         return task.getScheduleType() == ScheduleType.ONCE;
     }
 
     private void completeTask(Task task) {
-        task.setCompleted(true);
-        task.setStatus(TaskStatus.COMPLETED);
-        taskRepository.save(task);
+        if (taskRepository.completeRun(task.getId(), task.getVersion()) == 0) {
+            log.info("⏭️ Task ID={} changed while it ran, not completing it", task.getId());
+            return;
+        }
 
         log.info("✅ Task executed and completed successfully: ID={}", task.getId());
     }
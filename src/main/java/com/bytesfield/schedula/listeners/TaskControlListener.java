@@ -0,0 +1,42 @@
+package com.bytesfield.schedula.listeners;
+
+import com.bytesfield.schedula.dtos.TaskControlMessage;
+import com.bytesfield.schedula.scheduler.DueTaskIndex;
+import com.bytesfield.schedula.scheduler.PartitionCoordinator;
+import com.bytesfield.schedula.scheduler.TimerRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+@Slf4j
+@Component
+public class TaskControlListener {
+
+    private final TimerRegistry timerRegistry;
+    private final DueTaskIndex dueTaskIndex;
+    private final PartitionCoordinator partitionCoordinator;
+
+    public TaskControlListener(TimerRegistry timerRegistry, DueTaskIndex dueTaskIndex,
+                               PartitionCoordinator partitionCoordinator) {
+        this.timerRegistry = timerRegistry;
+        this.dueTaskIndex = dueTaskIndex;
+        this.partitionCoordinator = partitionCoordinator;
+    }
+
+    /**
+     * Applies a broadcast: an offer only on the node owning the task's partition, a cancellation on every node.
+     */
+    @RabbitListener(queues = "#{taskControlQueue.name}")
+    public void listen(TaskControlMessage message) {
+        if (message.getDueAtMillis() == null) {
+            timerRegistry.cancelStale(message.getTaskId(), message.getMinVersion());
+            return;
+        }
+
+        if (partitionCoordinator.ownsTask(message.getTaskId())) {
+            dueTaskIndex.offer(message.getTaskId(), Instant.ofEpochMilli(message.getDueAtMillis()));
+        }
+    }
+}
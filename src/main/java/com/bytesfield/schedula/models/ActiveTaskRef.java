@@ -0,0 +1,19 @@
+package com.bytesfield.schedula.models;
+
+import com.bytesfield.schedula.models.enums.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Projection of an active task used while rehydrating the schedule after a restart.
+ */
+@Getter
+@AllArgsConstructor
+public class ActiveTaskRef {
+    private int taskId;
+    private TaskStatus status;
+    private Instant nextRunAt;
+    private String claimedBy;
+}
@@ -0,0 +1,17 @@
+package com.bytesfield.schedula.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Lightweight projection of a task's id and next fire time, used to fill the due-task index
+ * without loading full Task entities.
+ */
+@Getter
+@AllArgsConstructor
+public class DueTaskRef {
+    private int taskId;
+    private Instant nextRunAt;
+}
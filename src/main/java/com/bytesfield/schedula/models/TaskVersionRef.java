@@ -0,0 +1,14 @@
+package com.bytesfield.schedula.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Projection of a task's id and version, used to claim a task without loading it.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskVersionRef {
+    private int taskId;
+    private long version;
+}
@@ -0,0 +1,21 @@
+package com.bytesfield.schedula.models.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "scheduler_nodes")
+public class SchedulerNodeHeartbeat {
+
+    @Id
+    @Column(name = "node_id", length = 100, updatable = false, nullable = false)
+    private String nodeId;
+
+    @Column(name = "heartbeat_at", nullable = false)
+    private Instant heartbeatAt;
+}
@@ -0,0 +1,24 @@
+package com.bytesfield.schedula.models.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "scheduler_partition_leases")
+public class SchedulerPartitionLease {
+
+    @Id
+    @Column(name = "partition_id", updatable = false, nullable = false)
+    private int partitionId;
+
+    @Column(name = "owner_node", length = 100)
+    private String ownerNode;
+
+    @Column(name = "lease_expires_at")
+    private Instant leaseExpiresAt;
+}
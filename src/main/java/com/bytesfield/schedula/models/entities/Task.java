@@ -1,13 +1,17 @@
 package com.bytesfield.schedula.models.entities;
 
+import com.bytesfield.schedula.models.enums.ConcurrencyPolicy;
+import com.bytesfield.schedula.models.enums.MisfirePolicy;
 import com.bytesfield.schedula.models.enums.NotificationType;
 import com.bytesfield.schedula.models.enums.ScheduleType;
+import com.bytesfield.schedula.models.enums.TaskPriority;
 import com.bytesfield.schedula.models.enums.TaskStatus;
 import com.bytesfield.schedula.models.enums.TaskType;
 import com.bytesfield.schedula.utils.converter.JsonConverter;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -17,7 +21,11 @@ import java.util.Map;
 @Getter
 @Setter
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_status_next_run_at", columnList = "status, next_run_at"),
+        @Index(name = "idx_tasks_priority_next_run_at", columnList = "priority, next_run_at"),
+        @Index(name = "idx_tasks_status_claimed_by", columnList = "status, claimed_by")
+})
 public class Task {
 
     @Id
@@ -46,6 +54,11 @@ public class Task {
     @Column(name = "status", nullable = false, length = 50)
     private TaskStatus status = TaskStatus.PENDING;
 
+    @Enumerated(EnumType.STRING)
+    @ColumnDefault("'NORMAL'")
+    @Column(name = "priority", nullable = false, length = 20)
+    private TaskPriority priority = TaskPriority.NORMAL;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "notification_type", nullable = false, length = 50)
     private NotificationType notificationType = NotificationType.EMAIL;
@@ -61,12 +74,50 @@ public class Task {
     @Column(name = "retry_count", nullable = false)
     private Integer retryCount = 0;
 
+    // Null uses scheduler.misfire.default-policy
+    @Enumerated(EnumType.STRING)
+    @Column(name = "misfire_policy", length = 20)
+    private MisfirePolicy misfirePolicy;
+
+    // Null uses scheduler.concurrency.default-policy
+    @Enumerated(EnumType.STRING)
+    @Column(name = "concurrency_policy", length = 20)
+    private ConcurrencyPolicy concurrencyPolicy;
+
+    // Retry policy for failed executions; null fields use the scheduler.retry defaults
+    @Column(name = "max_retries")
+    private Integer maxRetries;
+
+    @Column(name = "retry_backoff_seconds")
+    private Integer retryBackoffSeconds;
+
+    @Column(name = "retry_max_age_seconds")
+    private Integer retryMaxAgeSeconds;
+
+    // Runs still going after this many seconds are abandoned and retried; null uses scheduler.execution.timeout-seconds
+    @Column(name = "execution_timeout_seconds")
+    private Integer executionTimeoutSeconds;
+
     @Column(name = "next_run_at")
     private Instant nextRunAt;
 
     @Column(name = "last_run_at")
     private Instant lastRunAt;
 
+    // Fires are delayed by a hashed offset within this many seconds; null uses the global window for cron tasks
+    @Column(name = "spread_window_seconds")
+    private Integer spreadWindowSeconds;
+
+    @Column(name = "claimed_by", length = 100)
+    private String claimedBy;
+
+    @Column(name = "lease_expires_at")
+    private Instant leaseExpiresAt;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     @Column(name = "completed", nullable = false)
     private boolean completed = false;
 
@@ -0,0 +1,41 @@
+package com.bytesfield.schedula.models.entities;
+
+import com.bytesfield.schedula.models.enums.OutboxEventType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * A task message to publish, written in the transaction that changed the task. Rows are deleted once the broker
+ * confirmed the message; the id gives the publish order. A relay claims rows until claimedUntil while it publishes
+ * them, so other relays skip them without a lock being held during the publish.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "task_outbox")
+public class TaskOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(updatable = false, nullable = false)
+    private long id;
+
+    @Column(name = "task_id", nullable = false, updatable = false)
+    private int taskId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 20, updatable = false)
+    private OutboxEventType type;
+
+    @Column(name = "min_version", updatable = false)
+    private Long minVersion;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "claimed_until")
+    private Instant claimedUntil;
+}
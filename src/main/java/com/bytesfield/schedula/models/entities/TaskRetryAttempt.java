@@ -0,0 +1,44 @@
+package com.bytesfield.schedula.models.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * One failed execution of a task. Attempts of the same fire time share scheduledFor; retryAt is null once retries
+ * were given up.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "task_retry_attempts", indexes = {
+        @Index(name = "idx_task_retry_attempts_task_id", columnList = "task_id, id"),
+        @Index(name = "idx_task_retry_attempts_failed_at", columnList = "failed_at")
+})
+public class TaskRetryAttempt {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(updatable = false, nullable = false)
+    private long id;
+
+    @Column(name = "task_id", nullable = false, updatable = false)
+    private int taskId;
+
+    @Column(name = "attempt", nullable = false, updatable = false)
+    private short attempt;
+
+    @Column(name = "scheduled_for", nullable = false, updatable = false)
+    private Instant scheduledFor;
+
+    @Column(name = "failed_at", nullable = false, updatable = false)
+    private Instant failedAt;
+
+    @Column(name = "retry_at", updatable = false)
+    private Instant retryAt;
+
+    @Column(name = "error", length = 255, updatable = false)
+    private String error;
+}
@@ -0,0 +1,19 @@
+package com.bytesfield.schedula.models.enums;
+
+/**
+ * What to do when a task fires while its previous execution is still running.
+ */
+public enum ConcurrencyPolicy {
+    /**
+     * Run the executions side by side.
+     */
+    ALLOW,
+    /**
+     * Drop the new execution.
+     */
+    SKIP_IF_RUNNING,
+    /**
+     * Run the new execution once the running one finishes; further fires meanwhile are merged into it.
+     */
+    QUEUE_ONE
+}
@@ -0,0 +1,20 @@
+package com.bytesfield.schedula.models.enums;
+
+/**
+ * What to do with a task that missed its fire time by more than the misfire threshold, e.g. during an outage.
+ */
+public enum MisfirePolicy {
+    /**
+     * Fire once as soon as possible, then continue with the next regular fire time.
+     */
+    FIRE_ONCE_NOW,
+    /**
+     * Fire a cron task once for every missed fire time, up to scheduler.misfire.max-catch-up-fires of the most recent
+     * ones. One-shot tasks fire once.
+     */
+    FIRE_ALL_MISSED,
+    /**
+     * Do not fire: a cron task moves on to its next fire time and a one-shot task is completed.
+     */
+    SKIP_TO_NEXT
+}
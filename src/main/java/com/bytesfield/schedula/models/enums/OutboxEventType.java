@@ -0,0 +1,26 @@
+package com.bytesfield.schedula.models.enums;
+
+/**
+ * What the outbox relay publishes for a task.
+ */
+public enum OutboxEventType {
+    /**
+     * Publish the task to the task queue for scheduling.
+     */
+    SCHEDULE,
+
+    /**
+     * Publish the task to the broker delay tiers, released at its next run.
+     */
+    DELAY,
+
+    /**
+     * Broadcast the cancellation of timers armed on any node for versions of the task below the event's min version.
+     */
+    CANCEL,
+
+    /**
+     * Broadcast the task's next run, which the node owning the task's partition offers to its due-task index.
+     */
+    OFFER
+}
@@ -0,0 +1,39 @@
+package com.bytesfield.schedula.models.enums;
+
+import lombok.Getter;
+
+/**
+ * Priority classes of a task, highest first.
+ * <p>
+ * The AMQP priority orders messages waiting in the task queue; the weight is the share of each dispatch round and of
+ * the free execution slots a class gets while lower classes still get theirs, so a backlog in one class cannot
+ * starve another.
+ */
+@Getter
+public enum TaskPriority {
+    CRITICAL(9, 8),
+    HIGH(6, 4),
+    NORMAL(3, 2),
+    LOW(0, 1);
+
+    public static final int MAX_AMQP_PRIORITY = 9;
+
+    private final int amqpPriority;
+    private final int weight;
+
+    TaskPriority(int amqpPriority, int weight) {
+        this.amqpPriority = amqpPriority;
+        this.weight = weight;
+    }
+
+    public static int[] weights() {
+        TaskPriority[] priorities = values();
+        int[] weights = new int[priorities.length];
+
+        for (TaskPriority priority : priorities) {
+            weights[priority.ordinal()] = priority.weight;
+        }
+
+        return weights;
+    }
+}
@@ -1,5 +1,5 @@
 package com.bytesfield.schedula.models.enums;
 
 public enum TaskStatus {
-    PENDING, QUEUED, PROCESSING, COMPLETED, FAILED, PAUSED
+    PENDING, QUEUED, PROCESSING, RETRYING, COMPLETED, FAILED, PAUSED
 }
@@ -1,30 +1,224 @@
 package com.bytesfield.schedula.producers;
 
+import com.bytesfield.schedula.config.rabbitmq.TaskControlRabbitMQConfig;
+import com.bytesfield.schedula.config.rabbitmq.TaskDelayRabbitMQConfig;
+import com.bytesfield.schedula.config.rabbitmq.TaskDelayRabbitMQConfig.DelayTier;
 import com.bytesfield.schedula.config.rabbitmq.TaskRabbitMQConfig;
-import com.bytesfield.schedula.dtos.requests.TaskResponse;
+import com.bytesfield.schedula.dtos.TaskControlMessage;
+import com.bytesfield.schedula.dtos.TaskRefMessage;
+import com.bytesfield.schedula.models.entities.Task;
+import com.bytesfield.schedula.models.enums.TaskPriority;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
 @Slf4j
 @Service
 public class ScheduleTaskProducer {
 
+    /**
+     * Epoch millis a broker-delayed task is due at; also marks a task message as released by the delay tiers.
+     */
+    public static final String DELAYED_UNTIL_HEADER = "schedula-delayed-until";
+
     private final RabbitTemplate rabbitTemplate;
 
+    @Value("${scheduler.publish.confirm-batch-size:1000}")
+    private int confirmBatchSize;
+
+    @Value("${scheduler.publish.confirm-timeout-ms:10000}")
+    private long confirmTimeoutMillis;
+
     @Autowired
     public ScheduleTaskProducer(RabbitTemplate rabbitTemplate) {
         this.rabbitTemplate = rabbitTemplate;
     }
 
-    public void sendTask(TaskResponse task) {
-        rabbitTemplate.convertAndSend(
-                TaskRabbitMQConfig.EXCHANGE,
-                TaskRabbitMQConfig.ROUTING_KEY,
-                task
-        );
+    /**
+     * Publishes tasks in batches on a single channel, then waits for the broker to confirm each batch.
+     *
+     * @return the tasks the broker confirmed
+     * @see #sendConfirmed
+     */
+    public List<Task> sendTasks(List<Task> tasks) {
+        return sendConfirmed(tasks, ScheduleTaskProducer::scheduling);
+    }
+
+    /**
+     * Publishes messages in order, in batches on a single channel, then waits for the broker to confirm each batch.
+     * Needs spring.rabbitmq.publisher-confirm-type=correlated; every message gets its own correlation id, and items
+     * that are nacked, or not confirmed within the confirm timeout, are left out of the result so the caller can
+     * publish them again. A batch that fails to publish stops the run, so later items are not published ahead of it.
+     *
+     * @param items        the items to publish, in publish order
+     * @param publications maps an item to the message published for it
+     * @return the items the broker confirmed, in publish order
+     */
+    public <T> List<T> sendConfirmed(List<T> items, Function<T, Publication> publications) {
+        List<T> confirmed = new ArrayList<>(items.size());
+
+        for (int from = 0; from < items.size(); from += confirmBatchSize) {
+            List<T> batch = items.subList(from, Math.min(items.size(), from + confirmBatchSize));
+            List<PendingConfirm<T>> pending = new ArrayList<>(batch.size());
+
+            try {
+                rabbitTemplate.invoke(operations -> {
+                    for (T item : batch) {
+                        // A random id per message, since the same task can be published more than once
+                        CorrelationData correlation = new CorrelationData();
+                        Publication publication = publications.apply(item);
+
+                        operations.convertAndSend(publication.exchange(), publication.routingKey(),
+                                publication.payload(), publication.postProcessor(), correlation);
+                        pending.add(new PendingConfirm<>(correlation, item, publication));
+                    }
+
+                    return null;
+                });
+            } catch (AmqpException e) {
+                log.error("❌ Publishing a batch of {} message(s) failed after {}: {}", batch.size(), pending.size(),
+                        e.getMessage());
+            }
+
+            awaitConfirms(pending, confirmed);
+
+            if (pending.size() < batch.size() || Thread.currentThread().isInterrupted()) {
+                break;
+            }
+        }
+
+        log.info("{} of {} message(s) sent and confirmed", confirmed.size(), items.size());
+
+        return confirmed;
+    }
+
+    /**
+     * The message that hands a task to the task queue for scheduling.
+     */
+    public static Publication scheduling(Task task) {
+        return new Publication(TaskRabbitMQConfig.EXCHANGE, TaskRabbitMQConfig.ROUTING_KEY, TaskRefMessage.of(task),
+                withPriority(task));
+    }
+
+    /**
+     * The message that puts a task into the delay tiers, which release it to the task queue at its next run.
+     */
+    public static Publication delaying(Task task) {
+        long dueAtMillis = task.getNextRunAt().toEpochMilli();
+        DelayTier tier = TaskDelayRabbitMQConfig.tierFor(dueAtMillis - System.currentTimeMillis());
+        MessagePostProcessor withPriority = withPriority(task);
+
+        return new Publication(exchangeFor(tier), routingKeyFor(tier), TaskRefMessage.of(task), message -> {
+            message.getMessageProperties().setHeader(DELAYED_UNTIL_HEADER, dueAtMillis);
+
+            return withPriority.postProcessMessage(message);
+        });
+    }
+
+    /**
+     * The broadcast that cancels timers armed on any node for versions of a task below minVersion.
+     */
+    public static Publication cancellation(int taskId, long minVersion) {
+        return new Publication(TaskControlRabbitMQConfig.EXCHANGE, "",
+                new TaskControlMessage(taskId, minVersion, null), message -> message);
+    }
+
+    /**
+     * The broadcast that offers a task's due time to the due-task index of the node owning its partition.
+     */
+    public static Publication offering(int taskId, Instant dueAt) {
+        return new Publication(TaskControlRabbitMQConfig.EXCHANGE, "",
+                new TaskControlMessage(taskId, 0, dueAt.toEpochMilli()), message -> message);
+    }
+
+    /**
+     * Publishes a message without waiting for its confirm, for messages whose loss a periodic job makes up for.
+     */
+    public void send(Publication publication) {
+        rabbitTemplate.convertAndSend(publication.exchange(), publication.routingKey(), publication.payload(),
+                publication.postProcessor());
+    }
+
+    /**
+     * Sends a message released by a delay tier on to the next tier, or to the task queue once it is due.
+     */
+    public void forwardDelayedTask(Message message) {
+        MessageProperties properties = message.getMessageProperties();
+        Object dueAt = properties.getHeader(DELAYED_UNTIL_HEADER);
+
+        if (!(dueAt instanceof Number dueAtMillis)) {
+            log.warn("⚠️ Discarding delayed task message without a due time");
+            return;
+        }
+
+        // Drop the dead-letter history so it does not grow with every hop
+        properties.getHeaders().keySet().removeIf(header -> header.startsWith("x-"));
+
+        DelayTier tier = TaskDelayRabbitMQConfig.tierFor(dueAtMillis.longValue() - System.currentTimeMillis());
+
+        rabbitTemplate.send(exchangeFor(tier), routingKeyFor(tier), message);
+    }
+
+    private <T> void awaitConfirms(List<PendingConfirm<T>> pending, List<T> confirmed) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(confirmTimeoutMillis);
+
+        for (PendingConfirm<T> publish : pending) {
+            try {
+                CorrelationData.Confirm confirm = publish.correlation().getFuture().get(
+                        Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+
+                if (confirm.isAck()) {
+                    confirmed.add(publish.item());
+                } else {
+                    log.warn("⚠️ Broker rejected {}: {}", publish.publication().payload(), confirm.getReason());
+                }
+            } catch (TimeoutException | ExecutionException e) {
+                log.warn("⚠️ No publisher confirm for {}", publish.publication().payload());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static String exchangeFor(DelayTier tier) {
+        return tier == null ? TaskRabbitMQConfig.EXCHANGE : TaskDelayRabbitMQConfig.EXCHANGE;
+    }
+
+    private static String routingKeyFor(DelayTier tier) {
+        return tier == null ? TaskRabbitMQConfig.ROUTING_KEY : tier.queue();
+    }
+
+    private static MessagePostProcessor withPriority(Task task) {
+        TaskPriority priority = task.getPriority() != null ? task.getPriority() : TaskPriority.NORMAL;
+
+        return message -> {
+            message.getMessageProperties().setPriority(priority.getAmqpPriority());
+            return message;
+        };
+    }
+
+    /**
+     * A message to publish: where it goes, its payload and how its properties are set.
+     */
+    public record Publication(String exchange, String routingKey, Object payload, MessagePostProcessor postProcessor) {
+    }
 
-        log.info("Task sent to queue: {}", task);
+    private record PendingConfirm<T>(CorrelationData correlation, T item, Publication publication) {
     }
 }
@@ -0,0 +1,27 @@
+package com.bytesfield.schedula.producers;
+
+import com.bytesfield.schedula.config.rabbitmq.TaskRetryRabbitMQConfig;
+import com.bytesfield.schedula.dtos.TaskRetryMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+public class TaskRetryProducer {
+
+    private final RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    public TaskRetryProducer(RabbitTemplate rabbitTemplate) {
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    public void sendRetry(int taskId, long version) {
+        rabbitTemplate.convertAndSend(TaskRetryRabbitMQConfig.EXCHANGE, TaskRetryRabbitMQConfig.ROUTING_KEY,
+                new TaskRetryMessage(taskId, version));
+
+        log.debug("Retry of task ID={} sent to queue", taskId);
+    }
+}
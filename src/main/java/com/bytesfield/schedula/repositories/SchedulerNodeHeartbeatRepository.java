@@ -0,0 +1,34 @@
+package com.bytesfield.schedula.repositories;
+
+import com.bytesfield.schedula.models.entities.SchedulerNodeHeartbeat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface SchedulerNodeHeartbeatRepository extends JpaRepository<SchedulerNodeHeartbeat, String> {
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO scheduler_nodes (node_id, heartbeat_at) VALUES (:nodeId, :now) ON DUPLICATE KEY UPDATE heartbeat_at = :now", nativeQuery = true)
+    void heartbeat(String nodeId, Instant now);
+
+    @Query("SELECT COUNT(n) FROM SchedulerNodeHeartbeat n WHERE n.heartbeatAt >= :since")
+    long countLiveNodes(Instant since);
+
+    @Query("SELECT n.nodeId FROM SchedulerNodeHeartbeat n WHERE n.heartbeatAt >= :since")
+    List<String> findLiveNodeIds(Instant since);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SchedulerNodeHeartbeat n WHERE n.heartbeatAt < :before")
+    int deleteStale(Instant before);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SchedulerNodeHeartbeat n WHERE n.nodeId = :nodeId")
+    void deleteByNodeId(String nodeId);
+}
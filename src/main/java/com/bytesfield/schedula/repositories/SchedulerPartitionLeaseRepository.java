@@ -0,0 +1,40 @@
+package com.bytesfield.schedula.repositories;
+
+import com.bytesfield.schedula.models.entities.SchedulerPartitionLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface SchedulerPartitionLeaseRepository extends JpaRepository<SchedulerPartitionLease, Integer> {
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO scheduler_partition_leases (partition_id) VALUES (:partitionId)", nativeQuery = true)
+    void ensurePartition(int partitionId);
+
+    @Query("SELECT l.partitionId FROM SchedulerPartitionLease l WHERE l.ownerNode = :nodeId AND l.leaseExpiresAt >= :now ORDER BY l.partitionId")
+    List<Integer> findOwnedPartitionIds(String nodeId, Instant now);
+
+    @Query("SELECT l.partitionId FROM SchedulerPartitionLease l WHERE l.ownerNode IS NULL OR l.leaseExpiresAt < :now")
+    List<Integer> findAvailablePartitionIds(Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SchedulerPartitionLease l SET l.leaseExpiresAt = :expiresAt WHERE l.ownerNode = :nodeId AND l.leaseExpiresAt >= :now")
+    int renewLeases(String nodeId, Instant expiresAt, Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SchedulerPartitionLease l SET l.ownerNode = :nodeId, l.leaseExpiresAt = :expiresAt " +
+            "WHERE l.partitionId = :partitionId AND (l.ownerNode IS NULL OR l.ownerNode = :nodeId OR l.leaseExpiresAt < :now)")
+    int tryAcquire(int partitionId, String nodeId, Instant expiresAt, Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SchedulerPartitionLease l SET l.ownerNode = NULL, l.leaseExpiresAt = NULL WHERE l.partitionId IN :partitionIds AND l.ownerNode = :nodeId")
+    int release(List<Integer> partitionIds, String nodeId);
+}
@@ -0,0 +1,39 @@
+package com.bytesfield.schedula.repositories;
+
+import com.bytesfield.schedula.models.entities.Task;
+import com.bytesfield.schedula.models.enums.TaskPriority;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface TaskClaimRepository {
+
+    /**
+     * Locks and claims a bounded batch of due tasks for one scheduler node.
+     * Rows locked by a concurrent claim are skipped rather than waited on, so concurrent schedulers split
+     * the due tasks between them without duplicates.
+     *
+     * @param dueAfter       the exclusive lower bound for nextRunAt
+     * @param dueBefore      the upper bound for nextRunAt
+     * @param limit          the maximum number of tasks to claim
+     * @param nodeId         the id of the claiming scheduler node
+     * @param lease          how long the claim is held before another node may take the task over
+     * @param partitionCount the total number of task partitions
+     * @param partitions     the partitions the claiming node owns; only tasks hashed into them are claimed
+     * @param priority       the priority class to claim from
+     * @return the claimed tasks with their users fetched, ordered by nextRunAt
+     */
+    List<Task> claimDueTasks(Instant dueAfter, Instant dueBefore, int limit, String nodeId, Duration lease,
+                             int partitionCount, Collection<Integer> partitions, TaskPriority priority);
+
+    /**
+     * Marks claimed tasks as published. Each task only matches while it still has the next run it was claimed for,
+     * so a task a listener already armed, ran and moved on to a later run is left untouched.
+     *
+     * @param tasks the published tasks, as claimed
+     * @return the number of tasks marked
+     */
+    int markAllAsPublished(Collection<Task> tasks);
+}
@@ -0,0 +1,110 @@
+package com.bytesfield.schedula.repositories;
+
+import com.bytesfield.schedula.models.entities.Task;
+import com.bytesfield.schedula.models.enums.TaskPriority;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class TaskClaimRepositoryImpl implements TaskClaimRepository {
+
+    private static final String LOCK_DUE_TASKS_SQL = """
+            SELECT id FROM tasks
+            WHERE next_run_at > :dueAfter
+              AND next_run_at <= :dueBefore
+              AND status IN ('PENDING', 'PROCESSING')
+              AND (lease_expires_at IS NULL OR lease_expires_at < :now)
+              AND MOD(id, :partitionCount) IN (:partitions)
+              AND priority = :priority
+            ORDER BY next_run_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    /**
+     * Tasks marked per statement. Each statement has this many (id, nextRunAt) pairs, so Hibernate and MySQL prepare
+     * one statement shape instead of one per batch size.
+     */
+    private static final int MARK_PUBLISHED_CHUNK_SIZE = 50;
+
+    private static final String MARK_PUBLISHED_JPQL = markPublishedJpql();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public List<Task> claimDueTasks(Instant dueAfter, Instant dueBefore, int limit, String nodeId, Duration lease,
+                                    int partitionCount, Collection<Integer> partitions, TaskPriority priority) {
+        if (partitions.isEmpty()) {
+            return List.of();
+        }
+
+        Instant now = Instant.now();
+
+        List<Integer> taskIds = ((List<?>) entityManager.createNativeQuery(LOCK_DUE_TASKS_SQL)
+                .setParameter("dueAfter", dueAfter)
+                .setParameter("dueBefore", dueBefore)
+                .setParameter("now", now)
+                .setParameter("partitionCount", partitionCount)
+                .setParameter("partitions", partitions)
+                .setParameter("priority", priority.name())
+                .setParameter("limit", limit)
+                .getResultList())
+                .stream()
+                .map(id -> ((Number) id).intValue())
+                .toList();
+
+        if (taskIds.isEmpty()) {
+            return List.of();
+        }
+
+        entityManager.createQuery("UPDATE Task t SET t.claimedBy = :nodeId, t.leaseExpiresAt = :leaseExpiresAt WHERE t.id IN :ids")
+                .setParameter("nodeId", nodeId)
+                .setParameter("leaseExpiresAt", now.plus(lease))
+                .setParameter("ids", taskIds)
+                .executeUpdate();
+
+        return entityManager.createQuery("SELECT t FROM Task t JOIN FETCH t.user WHERE t.id IN :ids ORDER BY t.nextRunAt", Task.class)
+                .setParameter("ids", taskIds)
+                .getResultList();
+    }
+
+    @Override
+    @Transactional
+    public int markAllAsPublished(Collection<Task> tasks) {
+        List<Task> pending = List.copyOf(tasks);
+        int marked = 0;
+
+        for (int from = 0; from < pending.size(); from += MARK_PUBLISHED_CHUNK_SIZE) {
+            List<Task> chunk = pending.subList(from, Math.min(from + MARK_PUBLISHED_CHUNK_SIZE, pending.size()));
+            Query update = entityManager.createQuery(MARK_PUBLISHED_JPQL);
+
+            // A short chunk repeats its last task, so every chunk runs the same statement
+            for (int index = 0; index < MARK_PUBLISHED_CHUNK_SIZE; index++) {
+                Task task = chunk.get(Math.min(index, chunk.size() - 1));
+
+                update.setParameter("id" + index, task.getId()).setParameter("nextRunAt" + index, task.getNextRunAt());
+            }
+
+            marked += update.executeUpdate();
+        }
+
+        return marked;
+    }
+
+    private static String markPublishedJpql() {
+        return IntStream.range(0, MARK_PUBLISHED_CHUNK_SIZE)
+                .mapToObj(index -> "(t.id = :id" + index + " AND t.nextRunAt = :nextRunAt" + index + ")")
+                .collect(Collectors.joining(" OR ", "UPDATE Task t SET t.status = 'QUEUED', t.leaseExpiresAt = NULL " +
+                        "WHERE t.status IN ('PENDING', 'PROCESSING') AND (", ")"));
+    }
+}
@@ -0,0 +1,33 @@
+package com.bytesfield.schedula.repositories;
+
+import com.bytesfield.schedula.models.entities.TaskOutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface TaskOutboxRepository extends JpaRepository<TaskOutboxEvent, Long> {
+
+    /**
+     * Locks the oldest events not claimed by a relay; rows locked by another relay are skipped. Must run in a
+     * transaction.
+     */
+    @Query(value = "SELECT * FROM task_outbox WHERE claimed_until IS NULL OR claimed_until < :now " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<TaskOutboxEvent> lockNextBatch(Instant now, int limit);
+
+    @Modifying
+    @Query("UPDATE TaskOutboxEvent e SET e.claimedUntil = :claimedUntil WHERE e.id IN :ids")
+    int claimAllByIdIn(Collection<Long> ids, Instant claimedUntil);
+
+    @Modifying
+    @Query("UPDATE TaskOutboxEvent e SET e.claimedUntil = NULL WHERE e.id IN :ids")
+    int releaseAllByIdIn(Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM TaskOutboxEvent e WHERE e.id IN :ids")
+    int deleteAllByIdIn(Collection<Long> ids);
+}
@@ -1,30 +1,167 @@
 package com.bytesfield.schedula.repositories;
 
+import com.bytesfield.schedula.models.ActiveTaskRef;
+import com.bytesfield.schedula.models.DueTaskRef;
+import com.bytesfield.schedula.models.TaskVersionRef;
 import com.bytesfield.schedula.models.entities.Task;
 import com.bytesfield.schedula.models.entities.User;
+import com.bytesfield.schedula.models.enums.TaskStatus;
 import feign.Param;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
-public interface TaskRepository extends JpaRepository<Task, Integer> {
+public interface TaskRepository extends JpaRepository<Task, Integer>, TaskClaimRepository {
     @Query("SELECT t FROM Task t WHERE t.nextRunAt <= :now AND t.status IN ('PENDING', 'PROCESSING')")
     List<Task> findDueTasks(Instant now);
 
+    @Query("SELECT new com.bytesfield.schedula.models.DueTaskRef(t.id, t.nextRunAt) FROM Task t " +
+            "WHERE t.nextRunAt <= :until AND t.status IN ('PENDING', 'PROCESSING') AND MOD(t.id, :partitionCount) IN :partitions")
+    List<DueTaskRef> findDueTaskRefsUntil(Instant until, int partitionCount, Collection<Integer> partitions);
+
+    @Query("SELECT new com.bytesfield.schedula.models.DueTaskRef(t.id, t.nextRunAt) FROM Task t " +
+            "WHERE t.nextRunAt > :from AND t.nextRunAt <= :until AND t.status IN ('PENDING', 'PROCESSING') AND MOD(t.id, :partitionCount) IN :partitions")
+    List<DueTaskRef> findDueTaskRefsBetween(Instant from, Instant until, int partitionCount, Collection<Integer> partitions);
+
+    // One status per query, so idx_tasks_status_next_run_at is walked in due order and the scan stops at the first
+    // entry of an owned partition instead of aggregating over every active task after the window
+    @Query("SELECT t.nextRunAt FROM Task t " +
+            "WHERE t.status = :status AND t.nextRunAt > :after AND MOD(t.id, :partitionCount) IN :partitions " +
+            "ORDER BY t.nextRunAt ASC")
+    List<Instant> findNextDueAfter(TaskStatus status, Instant after, int partitionCount, Collection<Integer> partitions,
+                                   Pageable pageable);
+
     @Query("SELECT t FROM Task t WHERE t.user = :user AND t.id = :id")
     Task findUserTaskById(User user, int id);
 
     @Query("SELECT t FROM Task t WHERE t.user = :user ORDER BY t.createdAt ASC")
     List<Task> findUserTasks(User user);
 
+    /**
+     * Marks a task as armed in the in-memory timer of the given node, which then owns it until it fires.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Task t SET t.status = 'QUEUED', t.claimedBy = :nodeId, t.leaseExpiresAt = NULL WHERE t.id = :taskId")
+    void markAsQueued(Integer taskId, String nodeId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Task t SET t.status = 'QUEUED', t.claimedBy = :nodeId, t.leaseExpiresAt = NULL WHERE t.id IN :taskIds")
+    int markAllAsQueued(Collection<Integer> taskIds, String nodeId);
+
+    @Query("SELECT t FROM Task t JOIN FETCH t.user WHERE t.id IN :ids")
+    List<Task> findAllWithUserByIdIn(Collection<Integer> ids);
+
+    @Query("SELECT COALESCE(MAX(t.id), 0) FROM Task t")
+    int findMaxTaskId();
+
+    /**
+     * Keyset page of active tasks with afterId < id <= upToId, ordered by id.
+     */
+    @Query("SELECT new com.bytesfield.schedula.models.ActiveTaskRef(t.id, t.status, t.nextRunAt, t.claimedBy) FROM Task t " +
+            "WHERE t.id > :afterId AND t.id <= :upToId AND t.status IN ('PENDING', 'PROCESSING', 'QUEUED') ORDER BY t.id")
+    List<ActiveTaskRef> findActiveTaskRefsAfter(int afterId, int upToId, Pageable pageable);
+
+    /**
+     * Keyset page of QUEUED tasks with id > afterId that nothing will fire: armed by a node that is not live, or held
+     * by the broker or published without being armed and due before lostBefore. Ordered by id.
+     */
+    @Query("SELECT new com.bytesfield.schedula.models.ActiveTaskRef(t.id, t.status, t.nextRunAt, t.claimedBy) FROM Task t " +
+            "WHERE t.status = 'QUEUED' AND t.id > :afterId " +
+            "AND ((t.claimedBy NOT IN :liveNodes AND t.claimedBy <> :brokerHolder) " +
+            "OR ((t.claimedBy IS NULL OR t.claimedBy = :brokerHolder) AND (t.nextRunAt IS NULL OR t.nextRunAt < :lostBefore))) " +
+            "ORDER BY t.id")
+    List<ActiveTaskRef> findOrphanedTaskRefsAfter(int afterId, Collection<String> liveNodes, String brokerHolder,
+                                                  Instant lostBefore, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Task t SET t.status = 'PENDING', t.claimedBy = NULL, t.leaseExpiresAt = NULL, t.version = t.version + 1 " +
+            "WHERE t.id IN :taskIds AND t.status = 'QUEUED'")
+    int requeueOrphanedTasks(Collection<Integer> taskIds);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Task t SET t.status = 'PENDING', t.claimedBy = NULL, t.leaseExpiresAt = NULL, t.version = t.version + 1 " +
+            "WHERE t.claimedBy = :nodeId AND t.status = 'QUEUED'")
+    int requeueNodeTasks(String nodeId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Task t SET t.status = 'PENDING', t.lastRunAt = :lastRunAt, t.nextRunAt = :nextRunAt, " +
+            "t.claimedBy = NULL, t.leaseExpiresAt = NULL WHERE t.id = :taskId")
+    void scheduleNextRun(Integer taskId, Instant lastRunAt, Instant nextRunAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Task t SET t.nextRunAt = :nextRunAt WHERE t.id = :taskId")
+    void moveNextRunAt(Integer taskId, Instant nextRunAt);
+
+    /**
+     * Hands a fire that is blocked by a run on another node back to the database to be fired again later.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Task t SET t.status = 'PENDING', t.nextRunAt = :nextRunAt, t.claimedBy = NULL, t.leaseExpiresAt = NULL " +
+            "WHERE t.id = :taskId AND t.version = :version AND t.status NOT IN ('PAUSED', 'COMPLETED')")
+    int deferRun(Integer taskId, long version, Instant nextRunAt);
+
+    /**
+     * Completes a task after its last run. Does nothing if the task was changed since it was loaded.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Task t SET t.status = 'COMPLETED', t.completed = true, t.claimedBy = NULL, t.leaseExpiresAt = NULL " +
+            "WHERE t.id = :taskId AND t.version = :version AND t.status NOT IN ('PAUSED', 'COMPLETED')")
+    int completeRun(Integer taskId, long version);
+
+    /**
+     * Completes one-shot tasks whose missed run is skipped by their misfire policy.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Task t SET t.status = 'COMPLETED', t.completed = true, t.claimedBy = NULL, t.leaseExpiresAt = NULL WHERE t.id IN :taskIds")
+    int completeSkipped(Collection<Integer> taskIds);
+
+    /**
+     * Parks a failed task until its retry is due. Does nothing if the task was changed since it was loaded.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Task t SET t.status = 'RETRYING', t.nextRunAt = :retryAt, t.claimedBy = NULL, t.leaseExpiresAt = NULL " +
+            "WHERE t.id = :taskId AND t.version = :version AND t.status NOT IN ('PAUSED', 'COMPLETED')")
+    int scheduleRetry(Integer taskId, long version, Instant retryAt);
+
+    @Query("SELECT new com.bytesfield.schedula.models.TaskVersionRef(t.id, t.version) FROM Task t " +
+            "WHERE t.status = 'RETRYING' AND t.nextRunAt <= :now AND MOD(t.id, :partitionCount) IN :partitions ORDER BY t.nextRunAt")
+    List<TaskVersionRef> findDueRetryRefs(Instant now, int partitionCount, Collection<Integer> partitions, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Task t SET t.status = 'QUEUED', t.claimedBy = :nodeId, t.leaseExpiresAt = NULL " +
+            "WHERE t.id = :taskId AND t.version = :version AND t.status = 'RETRYING'")
+    int claimRetry(Integer taskId, long version, String nodeId);
+
+    /**
+     * Hands a claimed retry over to the node that runs it, so the retry is recovered if that node dies.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Task t SET t.claimedBy = :nodeId WHERE t.id = :taskId AND t.version = :version AND t.status = 'QUEUED'")
+    int takeOverRetry(Integer taskId, long version, String nodeId);
+
     @Modifying
     @Transactional
-    @Query("UPDATE Task t SET t.status = 'QUEUED' WHERE t.id = :taskId")
-    void markAsQueued(Integer taskId);
+    @Query("UPDATE Task t SET t.status = 'PROCESSING', t.lastRunAt = :lastRunAt, t.nextRunAt = :nextRunAt, " +
+            "t.retryCount = t.retryCount + 1, t.claimedBy = NULL, t.leaseExpiresAt = NULL WHERE t.id = :taskId")
+    void scheduleRepeat(Integer taskId, Instant lastRunAt, Instant nextRunAt);
 
     @Modifying
     @Transactional
@@ -0,0 +1,19 @@
+package com.bytesfield.schedula.repositories;
+
+import com.bytesfield.schedula.models.entities.TaskRetryAttempt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface TaskRetryAttemptRepository extends JpaRepository<TaskRetryAttempt, Long> {
+
+    TaskRetryAttempt findFirstByTaskIdOrderByIdDesc(int taskId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TaskRetryAttempt a WHERE a.failedAt < :before")
+    int deleteFailedBefore(Instant before);
+}
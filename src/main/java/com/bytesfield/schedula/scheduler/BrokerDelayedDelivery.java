@@ -0,0 +1,86 @@
+package com.bytesfield.schedula.scheduler;
+
+import com.bytesfield.schedula.config.rabbitmq.TaskDelayRabbitMQConfig;
+import com.bytesfield.schedula.models.entities.Task;
+import com.bytesfield.schedula.models.enums.OutboxEventType;
+import com.bytesfield.schedula.models.enums.TaskStatus;
+import com.bytesfield.schedula.repositories.TaskRepository;
+import com.bytesfield.schedula.scheduler.outbox.TaskOutbox;
+import com.bytesfield.schedula.utils.TaskHelper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * BrokerDelayedDelivery hands future timestamp tasks to the RabbitMQ delay tiers when scheduler.delivery.mode=broker,
+ * so no node holds a timer for them until they are due.
+ * <p>
+ * A delayed task is marked QUEUED and held by {@link #HOLDER} instead of a node. When its message comes back, it is
+ * only scheduled if the task is still held by the broker for the same due time; a task that was updated, paused or
+ * deleted meanwhile is handled by the database path instead. A task the broker has not released long after its due
+ * time is treated as lost and put back to PENDING by the rehydration.
+ */
+@Component
+public class BrokerDelayedDelivery {
+
+    public static final String HOLDER = "broker";
+
+    private final TaskRepository taskRepository;
+    private final TaskOutbox taskOutbox;
+    private final boolean enabled;
+
+    @Value("${scheduler.delivery.broker-grace-seconds:300}")
+    private long graceSeconds;
+
+    public BrokerDelayedDelivery(TaskRepository taskRepository, TaskOutbox taskOutbox,
+                                 @Value("${scheduler.delivery.mode:timer}") String deliveryMode) {
+        this.taskRepository = taskRepository;
+        this.taskOutbox = taskOutbox;
+        this.enabled = "broker".equalsIgnoreCase(deliveryMode);
+    }
+
+    /**
+     * Queues a task for the delay tiers through the outbox if broker delivery is enabled and the task is a timestamp
+     * task due at least one tier from now.
+     *
+     * @return true if the broker now holds the task
+     */
+    public boolean delay(Task task) {
+        Instant dueAt = task.getNextRunAt();
+
+        if (!enabled || !TaskHelper.isTimestampTask(task.getType()) || dueAt == null
+                || TaskDelayRabbitMQConfig.tierFor(dueAt.toEpochMilli() - System.currentTimeMillis()) == null) {
+            return false;
+        }
+
+        taskRepository.markAsQueued(task.getId(), HOLDER);
+        taskOutbox.enqueue(task, OutboxEventType.DELAY);
+
+        return true;
+    }
+
+    /**
+     * Whether a task released by the delay tiers for the given due time is still waiting for that release.
+     */
+    public boolean isAwaitingRelease(Task task, long delayedUntil) {
+        return task.getStatus() == TaskStatus.QUEUED
+                && HOLDER.equals(task.getClaimedBy())
+                && task.getNextRunAt() != null
+                && task.getNextRunAt().toEpochMilli() == delayedUntil;
+    }
+
+    /**
+     * Whether a task held by the broker should have been released long ago.
+     */
+    public boolean isLost(Instant nextRunAt, Instant now) {
+        return nextRunAt == null || nextRunAt.isBefore(lostBefore(now));
+    }
+
+    /**
+     * The due time before which a task held by the broker counts as lost.
+     */
+    public Instant lostBefore(Instant now) {
+        return now.minusSeconds(graceSeconds);
+    }
+}
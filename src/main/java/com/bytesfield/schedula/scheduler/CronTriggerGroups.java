@@ -0,0 +1,208 @@
+package com.bytesfield.schedula.scheduler;
+
+import com.bytesfield.schedula.scheduler.cron.CompiledCron;
+import com.bytesfield.schedula.utils.collections.IntObjectHashMap;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CronTriggerGroups coalesces cron tasks that share an expression into one timer per expression.
+ * <p>
+ * Groups are keyed by normalized expression. A group holds one pending occurrence: its fire time, a single timer and
+ * the member task ids armed for it. When the timer fires, every member is handed to the {@link FiredTaskBatcher} at
+ * once, which loads and releases them in batches, so the number of armed timers grows with distinct expressions
+ * rather than with tasks. Each member gets a {@link TimerHandle} that removes it from the group when cancelled, so
+ * membership follows task updates, pauses and deletes through the {@link TimerRegistry} like any other timer.
+ */
+@Slf4j
+@Component
+public class CronTriggerGroups {
+
+    private final TaskTimer taskTimer;
+    private final Map<String, Group> groups = new ConcurrentHashMap<>();
+
+    public CronTriggerGroups(TaskTimer taskTimer, MeterRegistry meterRegistry) {
+        this.taskTimer = taskTimer;
+
+        Gauge.builder("schedula.cron.groups", groups, Map::size)
+                .description("Cron trigger groups with a pending occurrence")
+                .register(meterRegistry);
+        Gauge.builder("schedula.cron.group.members", this, CronTriggerGroups::memberCount)
+                .description("Cron tasks armed through a trigger group")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Adds a cron task to the group of its expression for the given fire time.
+     *
+     * @return the member's handle, or null if the group is already armed for a different fire time and the task
+     * needs its own timer
+     */
+    public TimerHandle join(String cronExpression, int taskId, long version, Instant fireAt, FiredTaskBatcher batcher) {
+        String key = CompiledCron.normalize(cronExpression);
+        long fireAtMillis = fireAt.toEpochMilli();
+
+        while (true) {
+            Group group = groups.computeIfAbsent(key, Group::new);
+
+            synchronized (group) {
+                if (group.retired) {
+                    continue;
+                }
+
+                if (group.handle == null) {
+                    group.fireAtMillis = fireAtMillis;
+                    group.handle = taskTimer.schedule(() -> fire(group, batcher), fireAt);
+                } else if (group.fireAtMillis != fireAtMillis) {
+                    return null;
+                }
+
+                MemberHandle member = new MemberHandle(group, taskId, version, fireAt);
+                MemberHandle previous = group.members.get(taskId);
+
+                // A newer version of the task is already a member, so this one is stale from the start
+                if (previous != null && previous.version > version) {
+                    member.state = MemberHandle.CANCELLED;
+                    return member;
+                }
+
+                if (previous != null) {
+                    previous.state = MemberHandle.CANCELLED;
+                }
+
+                group.members.put(taskId, member);
+
+                return member;
+            }
+        }
+    }
+
+    public int memberCount() {
+        int count = 0;
+
+        for (Group group : groups.values()) {
+            synchronized (group) {
+                count += group.members.size();
+            }
+        }
+
+        return count;
+    }
+
+    private void fire(Group group, FiredTaskBatcher batcher) {
+        List<ScheduledTaskRef> refs;
+
+        synchronized (group) {
+            refs = new ArrayList<>(group.members.size());
+
+            group.members.forEach((taskId, member) -> {
+                member.state = MemberHandle.EXPIRED;
+                refs.add(batcher.newRef(taskId, member.version, member.fireAt));
+            });
+
+            group.members.clear();
+            retire(group);
+        }
+
+        log.debug("Cron group '{}' fired for {} task(s)", group.key, refs.size());
+
+        batcher.firedAll(refs);
+    }
+
+    // Must be called while holding the group's lock
+    private void retire(Group group) {
+        group.handle = null;
+        group.retired = true;
+        groups.remove(group.key, group);
+    }
+
+    private void leave(MemberHandle member) {
+        Group group = member.group;
+
+        synchronized (group) {
+            if (group.members.get(member.taskId) == member) {
+                group.members.remove(member.taskId);
+            }
+
+            if (group.members.isEmpty() && group.handle != null) {
+                group.handle.cancel();
+                retire(group);
+            }
+        }
+    }
+
+    private static final class Group {
+        private final String key;
+        private final IntObjectHashMap<MemberHandle> members = new IntObjectHashMap<>();
+        private long fireAtMillis;
+        private TimerHandle handle;
+        private boolean retired;
+
+        Group(String key) {
+            this.key = key;
+        }
+    }
+
+    private final class MemberHandle implements TimerHandle {
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Group group;
+        private final int taskId;
+        private final long version;
+        private final Instant fireAt;
+
+        // Guarded by the group's lock
+        private int state = PENDING;
+
+        MemberHandle(Group group, int taskId, long version, Instant fireAt) {
+            this.group = group;
+            this.taskId = taskId;
+            this.version = version;
+            this.fireAt = fireAt;
+        }
+
+        @Override
+        public boolean cancel() {
+            synchronized (group) {
+                if (state != PENDING) {
+                    return false;
+                }
+
+                state = CANCELLED;
+            }
+
+            leave(this);
+
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            synchronized (group) {
+                return state == CANCELLED;
+            }
+        }
+
+        @Override
+        public boolean isExpired() {
+            synchronized (group) {
+                return state == EXPIRED;
+            }
+        }
+
+        @Override
+        public Instant getFireAt() {
+            return fireAt;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.bytesfield.schedula.scheduler;
+
+import com.bytesfield.schedula.models.entities.Task;
+import com.bytesfield.schedula.models.enums.TaskPriority;
+import com.bytesfield.schedula.producers.ScheduleTaskProducer;
+import com.bytesfield.schedula.repositories.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * DueTaskDispatcher waits on the {@link DueTaskIndex} and publishes tasks to RabbitMQ as soon as they are due.
+ * The index only decides when to wake up: due tasks are claimed in batches with
+ * {@link TaskRepository#claimDueTasks}, so concurrent instances never publish the same task twice, and only
+ * tasks in partitions owned by this node are claimed.
+ * <p>
+ * Each dispatch round claims per {@link TaskPriority} class, highest first. Every class gets a share of the batch
+ * proportional to its weight, and capacity a class leaves unused goes to the classes that still have due tasks, so
+ * a backlog of low-priority tasks cannot delay high-priority ones and lower classes still progress under load.
+ * <p>
+ * Claimed tasks are published as one confirmed batch, and only the tasks the broker confirmed are marked as QUEUED.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DueTaskDispatcher implements SmartLifecycle {
+
+    private final DueTaskIndex dueTaskIndex;
+    private final TaskRepository taskRepository;
+    private final ScheduleTaskProducer scheduleTaskProducer;
+    private final SchedulerNode schedulerNode;
+    private final PartitionCoordinator partitionCoordinator;
+
+    @Value("${scheduler.dispatch.batch-size:500}")
+    private int batchSize;
+
+    @Value("${scheduler.claim.lease-seconds:60}")
+    private long leaseSeconds;
+
+    @Value("${scheduler.misfire.threshold-seconds:60}")
+    private long misfireThresholdSeconds;
+
+    private static final int TOTAL_WEIGHT = Arrays.stream(TaskPriority.values()).mapToInt(TaskPriority::getWeight).sum();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        worker = new Thread(this::run, "schedula-due-dispatcher");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                List<Integer> dueTaskIds = dueTaskIndex.awaitDue(batchSize, 1000);
+
+                if (!dueTaskIds.isEmpty()) {
+                    claimAndPublishDueTasks();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("❌ Dispatching due tasks failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void claimAndPublishDueTasks() {
+        Duration lease = Duration.ofSeconds(leaseSeconds);
+        boolean backlog;
+
+        do {
+            backlog = false;
+            int claimed = 0;
+            List<TaskPriority> saturated = new ArrayList<>();
+
+            for (TaskPriority priority : TaskPriority.values()) {
+                int quota = Math.max(1, batchSize * priority.getWeight() / TOTAL_WEIGHT);
+                int count = claimAndPublish(priority, quota, lease);
+
+                claimed += count;
+
+                if (count == quota) {
+                    saturated.add(priority);
+                }
+            }
+
+            for (TaskPriority priority : saturated) {
+                int remaining = batchSize - claimed;
+
+                if (remaining <= 0) {
+                    backlog = true;
+                    break;
+                }
+
+                int count = claimAndPublish(priority, remaining, lease);
+
+                claimed += count;
+                backlog |= count == remaining;
+            }
+        } while (backlog && running);
+    }
+
+    private int claimAndPublish(TaskPriority priority, int limit, Duration lease) {
+        Instant now = Instant.now();
+
+        // Tasks overdue by more than the misfire threshold are left to MisfireCatchUp
+        List<Task> claimedTasks = taskRepository.claimDueTasks(now.minusSeconds(misfireThresholdSeconds), now, limit,
+                schedulerNode.getNodeId(), lease, partitionCoordinator.getPartitionCount(),
+                partitionCoordinator.getOwnedPartitions(), priority);
+
+        if (claimedTasks.isEmpty()) {
+            return 0;
+        }
+
+        // Unconfirmed tasks keep their claim and are claimed again once the lease expires
+        List<Task> confirmed = scheduleTaskProducer.sendTasks(claimedTasks);
+
+        if (!confirmed.isEmpty()) {
+            taskRepository.markAllAsPublished(confirmed);
+        }
+
+        return claimedTasks.size();
+    }
+}
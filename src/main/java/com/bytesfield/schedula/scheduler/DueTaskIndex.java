@@ -0,0 +1,213 @@
+package com.bytesfield.schedula.scheduler;
+
+import com.bytesfield.schedula.models.DueTaskRef;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * DueTaskIndex is a scheduler-local min-heap of (nextRunAt, taskId) for tasks due within the lookahead window.
+ * <p>
+ * The index is complete for every task due before {@link #getWindowEnd()}: the refill job extends the window with
+ * narrow range queries, and TaskService offers new or changed tasks directly so they do not wait for a refill.
+ * Superseded and removed entries are dropped lazily when they reach the head of the heap.
+ */
+@Component
+public class DueTaskIndex {
+
+    private final PriorityQueue<Entry> heap = new PriorityQueue<>();
+    private final Map<Integer, Long> latestDue = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+
+    private Instant windowEnd;
+
+    /**
+     * Adds or moves a task in the index. Tasks due after the loaded window are left for the next refill.
+     *
+     * @param taskId the task id
+     * @param dueAt  the next fire time, or null if the task no longer has one
+     * @return true if the task is now tracked by the index
+     */
+    public boolean offer(int taskId, Instant dueAt) {
+        lock.lock();
+        try {
+            if (dueAt == null || windowEnd == null || dueAt.isAfter(windowEnd)) {
+                latestDue.remove(taskId);
+                return false;
+            }
+
+            add(taskId, dueAt.toEpochMilli());
+            changed.signalAll();
+
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops tracking a task, e.g. after it was deleted.
+     *
+     * @param taskId the task id
+     */
+    public void remove(int taskId) {
+        lock.lock();
+        try {
+            latestDue.remove(taskId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Loads tasks returned by a range query and extends the window the index is complete for.
+     *
+     * @param refs         the tasks to add
+     * @param newWindowEnd the end of the range that was queried, or null to keep the current window
+     */
+    public void load(Collection<DueTaskRef> refs, Instant newWindowEnd) {
+        lock.lock();
+        try {
+            for (DueTaskRef ref : refs) {
+                if (ref.getNextRunAt() != null) {
+                    add(ref.getTaskId(), ref.getNextRunAt().toEpochMilli());
+                }
+            }
+
+            if (newWindowEnd != null && (windowEnd == null || newWindowEnd.isAfter(windowEnd))) {
+                windowEnd = newWindowEnd;
+            }
+
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until at least one task is due, then removes and returns the due task ids.
+     *
+     * @param maxBatch      the maximum number of task ids to return
+     * @param maxWaitMillis how long to wait for a task to become due
+     * @return the due task ids, empty if none became due within the wait time
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    public List<Integer> awaitDue(int maxBatch, long maxWaitMillis) throws InterruptedException {
+        lock.lock();
+        try {
+            long deadline = System.currentTimeMillis() + maxWaitMillis;
+
+            while (true) {
+                dropStaleHead();
+
+                long now = System.currentTimeMillis();
+                Entry head = heap.peek();
+
+                if (head != null && head.dueAt <= now) {
+                    return pollDue(maxBatch, now);
+                }
+
+                long wakeAt = head == null ? deadline : Math.min(deadline, head.dueAt);
+
+                if (wakeAt <= now) {
+                    return List.of();
+                }
+
+                changed.await(wakeAt - now, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forgets every tracked task and the loaded window, e.g. after this node's partitions changed.
+     */
+    public void reset() {
+        lock.lock();
+        try {
+            heap.clear();
+            latestDue.clear();
+            windowEnd = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Instant getWindowEnd() {
+        lock.lock();
+        try {
+            return windowEnd;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return latestDue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void add(int taskId, long dueAt) {
+        latestDue.put(taskId, dueAt);
+        heap.add(new Entry(dueAt, taskId));
+    }
+
+    private List<Integer> pollDue(int maxBatch, long now) {
+        List<Integer> due = new ArrayList<>();
+
+        while (due.size() < maxBatch) {
+            Entry head = heap.peek();
+
+            if (head == null || head.dueAt > now) {
+                break;
+            }
+
+            heap.poll();
+
+            if (isCurrent(head)) {
+                latestDue.remove(head.taskId);
+                due.add(head.taskId);
+            }
+        }
+
+        return due;
+    }
+
+    private void dropStaleHead() {
+        Entry head;
+
+        while ((head = heap.peek()) != null && !isCurrent(head)) {
+            heap.poll();
+        }
+    }
+
+    private boolean isCurrent(Entry entry) {
+        Long due = latestDue.get(entry.taskId);
+
+        return due != null && due == entry.dueAt;
+    }
+
+    private record Entry(long dueAt, int taskId) implements Comparable<Entry> {
+        @Override
+        public int compareTo(Entry other) {
+            int byDue = Long.compare(dueAt, other.dueAt);
+
+            return byDue != 0 ? byDue : Integer.compare(taskId, other.taskId);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.bytesfield.schedula.scheduler;
+
+import com.bytesfield.schedula.models.entities.Task;
+import com.bytesfield.schedula.models.enums.OutboxEventType;
+import com.bytesfield.schedula.producers.ScheduleTaskProducer;
+import com.bytesfield.schedula.scheduler.outbox.TaskOutbox;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+
+/**
+ * DueTaskNotifier hands a changed due time to the {@link DueTaskIndex} of the node that owns the task's partition,
+ * since only that node's dispatcher claims the task.
+ * <p>
+ * A task owned by this node is offered to the local index. Any other task is offered through a broadcast on the
+ * task control fanout, which the owner applies in TaskControlListener. Changes made in a transaction are broadcast
+ * through the outbox after the commit; changes made after a run are broadcast right away without a confirm. A lost
+ * broadcast leaves the task to the overdue sweep of TaskSchedulerJob.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DueTaskNotifier {
+
+    private final DueTaskIndex dueTaskIndex;
+    private final PartitionCoordinator partitionCoordinator;
+    private final ScheduleTaskProducer scheduleTaskProducer;
+    private final TaskOutbox taskOutbox;
+
+    /**
+     * Offers a task whose due time was already committed, e.g. by a run that deferred or rescheduled it.
+     *
+     * @param taskId the task id
+     * @param dueAt  the next fire time, or null if the task no longer has one
+     */
+    public void offer(int taskId, Instant dueAt) {
+        if (partitionCoordinator.ownsTask(taskId)) {
+            dueTaskIndex.offer(taskId, dueAt);
+            return;
+        }
+
+        if (dueAt == null) {
+            return;
+        }
+
+        try {
+            scheduleTaskProducer.send(ScheduleTaskProducer.offering(taskId, dueAt));
+        } catch (AmqpException e) {
+            log.warn("⚠️ Could not offer task ID={} to the node owning it, leaving it to the overdue sweep: {}",
+                    taskId, e.getMessage());
+        }
+    }
+
+    /**
+     * Offers a task changed in the caller's transaction once it commits, so the dispatcher never wakes for a row
+     * that is still locked or still holds its old due time.
+     */
+    public void offerAfterCommit(Task task) {
+        int taskId = task.getId();
+        Instant dueAt = task.getNextRunAt();
+
+        if (!partitionCoordinator.ownsTask(taskId)) {
+            taskOutbox.enqueue(task, OutboxEventType.OFFER);
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dueTaskIndex.offer(taskId, dueAt);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dueTaskIndex.offer(taskId, dueAt);
+            }
+        });
+    }
+}
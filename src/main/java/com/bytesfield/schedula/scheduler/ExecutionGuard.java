@@ -0,0 +1,222 @@
+package com.bytesfield.schedula.scheduler;
+
+import com.bytesfield.schedula.models.entities.Task;
+import com.bytesfield.schedula.models.enums.ConcurrencyPolicy;
+import com.bytesfield.schedula.repositories.TaskRepository;
+import com.bytesfield.schedula.services.utils.CacheService;
+import com.bytesfield.schedula.utils.collections.IntObjectHashMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ExecutionGuard enforces each task's {@link ConcurrencyPolicy}, so a slow provider cannot pile up concurrent
+ * executions of the same task.
+ * <p>
+ * Running tasks are tracked in an in-memory set keyed by task id. With scheduler.concurrency.scope=cluster a run also
+ * takes a Redis key that expires after scheduler.concurrency.lease-seconds, so the policy holds across nodes. A fire
+ * blocked by a run on another node is dropped (SKIP_IF_RUNNING) or handed back to the database to be fired again
+ * shortly (QUEUE_ONE). If Redis is unavailable the guard falls back to the local set. Tasks with the ALLOW policy are
+ * not tracked. A run abandoned by the {@link ExecutionWatchdog} gives up its slot right away, so the retry of a
+ * timed-out execution is not blocked by a thread that never returns.
+ */
+@Slf4j
+@Component
+public class ExecutionGuard {
+
+    private static final String RUNNING_KEY_PREFIX = "schedula:running:";
+
+    private final IntObjectHashMap<Run> running = new IntObjectHashMap<>();
+    private final CacheService cacheService;
+    private final TaskRepository taskRepository;
+    private final DueTaskNotifier dueTaskNotifier;
+    private final String nodeId;
+    private final ConcurrencyPolicy defaultPolicy;
+    private final boolean clusterScope;
+    private final Counter skipped;
+    private final Counter queued;
+
+    @Value("${scheduler.concurrency.lease-seconds:600}")
+    private long leaseSeconds;
+
+    @Value("${scheduler.concurrency.defer-millis:1000}")
+    private long deferMillis;
+
+    public ExecutionGuard(CacheService cacheService, TaskRepository taskRepository, DueTaskNotifier dueTaskNotifier,
+                          SchedulerNode schedulerNode,
+                          @Value("${scheduler.concurrency.default-policy:ALLOW}") ConcurrencyPolicy defaultPolicy,
+                          @Value("${scheduler.concurrency.scope:local}") String scope,
+                          MeterRegistry meterRegistry) {
+        this.cacheService = cacheService;
+        this.taskRepository = taskRepository;
+        this.dueTaskNotifier = dueTaskNotifier;
+        this.nodeId = schedulerNode.getNodeId();
+        this.defaultPolicy = defaultPolicy;
+        this.clusterScope = "cluster".equalsIgnoreCase(scope);
+
+        Gauge.builder("schedula.concurrency.running", this, ExecutionGuard::runningCount)
+                .description("Guarded tasks currently running on this node")
+                .register(meterRegistry);
+        this.skipped = Counter.builder("schedula.concurrency.skipped").register(meterRegistry);
+        this.queued = Counter.builder("schedula.concurrency.queued").register(meterRegistry);
+    }
+
+    /**
+     * Tries to start an execution of a task.
+     *
+     * @return true if the caller may run the task now and must call {@link #release} afterwards
+     */
+    public boolean tryAcquire(Task task) {
+        ConcurrencyPolicy policy = policyOf(task);
+
+        if (policy == ConcurrencyPolicy.ALLOW) {
+            return true;
+        }
+
+        synchronized (running) {
+            Run run = running.get(task.getId());
+
+            if (run != null) {
+                if (policy == ConcurrencyPolicy.QUEUE_ONE) {
+                    run.next = task;
+                    queued.increment();
+                    log.info("⏸️ Task ID={} is still running, queued the next execution", task.getId());
+                } else {
+                    skipped.increment();
+                    log.info("⏭️ Task ID={} is still running, skipped this execution", task.getId());
+                }
+
+                return false;
+            }
+
+            running.put(task.getId(), new Run(Thread.currentThread()));
+        }
+
+        if (clusterScope && !acquireClusterLease(task.getId())) {
+            synchronized (running) {
+                running.remove(task.getId());
+            }
+
+            onBlockedByOtherNode(task, policy);
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Ends an execution. If another execution was queued meanwhile, the task stays acquired and that execution is
+     * returned for the caller to run next.
+     *
+     * @return the queued execution, or null if the task was released
+     */
+    public Task release(Task task) {
+        if (policyOf(task) == ConcurrencyPolicy.ALLOW) {
+            return null;
+        }
+
+        synchronized (running) {
+            Run run = running.get(task.getId());
+
+            // The run was abandoned, and the slot may already belong to a newer run
+            if (run == null || run.owner != Thread.currentThread()) {
+                return null;
+            }
+
+            if (run.next != null) {
+                Task next = run.next;
+                run.next = null;
+
+                return next;
+            }
+
+            running.remove(task.getId());
+        }
+
+        if (clusterScope) {
+            releaseClusterLease(task.getId());
+        }
+
+        return null;
+    }
+
+    /**
+     * Frees the slot of a run that is still holding its thread, dropping any execution queued behind it.
+     *
+     * @param owner the thread the abandoned run is running on
+     */
+    public void abandon(Task task, Thread owner) {
+        synchronized (running) {
+            Run run = running.get(task.getId());
+
+            if (run == null || run.owner != owner) {
+                return;
+            }
+
+            running.remove(task.getId());
+        }
+
+        if (clusterScope) {
+            releaseClusterLease(task.getId());
+        }
+    }
+
+    public ConcurrencyPolicy policyOf(Task task) {
+        return task.getConcurrencyPolicy() != null ? task.getConcurrencyPolicy() : defaultPolicy;
+    }
+
+    private int runningCount() {
+        synchronized (running) {
+            return running.size();
+        }
+    }
+
+    private boolean acquireClusterLease(int taskId) {
+        try {
+            return cacheService.setValueIfAbsent(RUNNING_KEY_PREFIX + taskId, nodeId, leaseSeconds, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("⚠️ Could not take the cluster lease of task ID={}, relying on the local guard: {}", taskId, e.getMessage());
+            return true;
+        }
+    }
+
+    private void releaseClusterLease(int taskId) {
+        try {
+            cacheService.deleteValueIfEquals(RUNNING_KEY_PREFIX + taskId, nodeId);
+        } catch (Exception e) {
+            log.warn("⚠️ Could not release the cluster lease of task ID={}: {}", taskId, e.getMessage());
+        }
+    }
+
+    private void onBlockedByOtherNode(Task task, ConcurrencyPolicy policy) {
+        if (policy == ConcurrencyPolicy.SKIP_IF_RUNNING) {
+            skipped.increment();
+            log.info("⏭️ Task ID={} is running on another node, skipped this execution", task.getId());
+            return;
+        }
+
+        Instant retryAt = Instant.now().plusMillis(deferMillis);
+
+        if (taskRepository.deferRun(task.getId(), task.getVersion(), retryAt) == 1) {
+            dueTaskNotifier.offer(task.getId(), retryAt);
+        }
+
+        queued.increment();
+        log.info("⏸️ Task ID={} is running on another node, deferred this execution to {}", task.getId(), retryAt);
+    }
+
+    private static final class Run {
+        private final Thread owner;
+        private Task next;
+
+        private Run(Thread owner) {
+            this.owner = owner;
+        }
+    }
+}
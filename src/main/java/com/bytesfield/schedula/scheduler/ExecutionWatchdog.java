@@ -0,0 +1,155 @@
+package com.bytesfield.schedula.scheduler;
+
+import com.bytesfield.schedula.models.entities.Task;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * ExecutionWatchdog puts a deadline on every task execution, so a hung SMTP connection or a stalled provider call
+ * cannot hold an executor thread and leave its task in flight forever.
+ * <p>
+ * A run that passes its task's execution timeout (or scheduler.execution.timeout-seconds) is abandoned: its thread
+ * is interrupted and the timeout handler routes the task to the retry pipeline. Exactly one of the run and the
+ * watchdog decides the outcome, so whatever an abandoned run does once it returns is discarded. Abandoned runs whose
+ * thread has not returned yet are reported as stuck.
+ */
+@Slf4j
+@Component
+public class ExecutionWatchdog {
+
+    private static final int RUNNING = 0;
+    private static final int COMPLETED = 1;
+    private static final int TIMED_OUT = 2;
+
+    private final Set<Watch> watches = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger stuck = new AtomicInteger();
+    private final long defaultTimeoutSeconds;
+    private final Counter timedOut;
+
+    public ExecutionWatchdog(@Value("${scheduler.execution.timeout-seconds:300}") long defaultTimeoutSeconds,
+                             MeterRegistry meterRegistry) {
+        this.defaultTimeoutSeconds = defaultTimeoutSeconds;
+
+        Gauge.builder("schedula.execution.running", watches, Set::size)
+                .description("Task executions currently running")
+                .register(meterRegistry);
+        Gauge.builder("schedula.execution.stuck", stuck, AtomicInteger::get)
+                .description("Timed-out executions whose thread has not returned yet")
+                .register(meterRegistry);
+        this.timedOut = Counter.builder("schedula.execution.timed-out").register(meterRegistry);
+    }
+
+    /**
+     * Starts watching a run on the current thread. The caller must call {@link #finish} once the run returns.
+     *
+     * @param onTimeout called from the watchdog thread if the run passes its deadline
+     */
+    public Watch watch(Task task, Consumer<Watch> onTimeout) {
+        long timeoutSeconds = task.getExecutionTimeoutSeconds() != null ? task.getExecutionTimeoutSeconds() : defaultTimeoutSeconds;
+        Watch watch = new Watch(task, Thread.currentThread(), timeoutSeconds, onTimeout);
+
+        watches.add(watch);
+
+        return watch;
+    }
+
+    public void finish(Watch watch) {
+        watches.remove(watch);
+
+        synchronized (watch) {
+            watch.finished = true;
+        }
+
+        if (watch.isTimedOut()) {
+            stuck.decrementAndGet();
+
+            // Clears an interrupt the run did not consume, so it does not leak into the next task on this thread
+            Thread.interrupted();
+
+            log.info("⏰ Abandoned run of task ID={} returned after {} ms", watch.task.getId(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - watch.startedAt));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${scheduler.execution.watchdog-interval-ms:1000}")
+    public void checkDeadlines() {
+        long now = System.nanoTime();
+
+        for (Watch watch : watches) {
+            if (now - watch.deadline < 0 || !watch.state.compareAndSet(RUNNING, TIMED_OUT)) {
+                continue;
+            }
+
+            timedOut.increment();
+            stuck.incrementAndGet();
+
+            log.warn("⏰ Task ID={} exceeded its {}s execution timeout, abandoning the run", watch.task.getId(), watch.timeoutSeconds);
+
+            watch.interrupt();
+
+            try {
+                watch.onTimeout.accept(watch);
+            } catch (Exception e) {
+                log.error("❌ Handling the timeout of task ID={} failed: {}", watch.task.getId(), e.getMessage(), e);
+            }
+        }
+    }
+
+    public static final class Watch {
+
+        @Getter
+        private final Task task;
+
+        @Getter
+        private final Thread thread;
+
+        @Getter
+        private final long timeoutSeconds;
+
+        private final Consumer<Watch> onTimeout;
+        private final long startedAt = System.nanoTime();
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(RUNNING);
+        private boolean finished;
+
+        private Watch(Task task, Thread thread, long timeoutSeconds, Consumer<Watch> onTimeout) {
+            this.task = task;
+            this.thread = thread;
+            this.timeoutSeconds = timeoutSeconds;
+            this.onTimeout = onTimeout;
+            this.deadline = startedAt + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        }
+
+        /**
+         * Claims the outcome of the run for its own thread. Only the first call succeeds, so once the run has been
+         * settled a later failure of the same run cannot settle it again, e.g. by retrying a delivered notification.
+         *
+         * @return false if the watchdog already abandoned the run or its outcome was already claimed
+         */
+        public boolean complete() {
+            return state.compareAndSet(RUNNING, COMPLETED);
+        }
+
+        public boolean isTimedOut() {
+            return state.get() == TIMED_OUT;
+        }
+
+        private synchronized void interrupt() {
+            if (!finished) {
+                thread.interrupt();
+            }
+        }
+    }
+}
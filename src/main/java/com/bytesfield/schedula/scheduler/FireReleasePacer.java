@@ -0,0 +1,68 @@
+package com.bytesfield.schedula.scheduler;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FireReleasePacer caps how many fired tasks are released for execution per second and records when they go out.
+ * <p>
+ * With scheduler.spread.max-fires-per-second set, a token bucket holds fired tasks back until a token is available,
+ * so bursts that the spread window did not absorb reach the database and the mail provider at a steady rate.
+ * Release lag and the second-of-minute of each release are exported, which shows how flat the fire distribution is.
+ */
+@Component
+public class FireReleasePacer {
+
+    private final Bucket bucket;
+    private final Timer lag;
+    private final DistributionSummary secondOfMinute;
+    private final Counter released;
+
+    public FireReleasePacer(@Value("${scheduler.spread.max-fires-per-second:0}") int maxFiresPerSecond,
+                            MeterRegistry meterRegistry) {
+        this.bucket = maxFiresPerSecond > 0
+                ? Bucket.builder()
+                .addLimit(Bandwidth.classic(maxFiresPerSecond, Refill.greedy(maxFiresPerSecond, Duration.ofSeconds(1))))
+                .build()
+                : null;
+
+        this.lag = Timer.builder("schedula.fire.lag")
+                .description("Delay between a task's fire time and its release for execution")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.secondOfMinute = DistributionSummary.builder("schedula.fire.second-of-minute")
+                .description("Second within the minute at which fired tasks are released")
+                .serviceLevelObjectives(5, 10, 15, 20, 25, 30, 35, 40, 45, 50, 55, 60)
+                .register(meterRegistry);
+        this.released = Counter.builder("schedula.fire.released")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Waits for a release token if pacing is enabled, then records the release.
+     *
+     * @param ref the fired task
+     * @throws InterruptedException if interrupted while waiting for a token
+     */
+    public void awaitRelease(ScheduledTaskRef ref) throws InterruptedException {
+        if (bucket != null) {
+            bucket.asBlocking().consume(1);
+        }
+
+        long now = System.currentTimeMillis();
+
+        lag.record(Math.max(0, now - ref.getFireAtMillis()), TimeUnit.MILLISECONDS);
+        secondOfMinute.record(now / 1000 % 60);
+        released.increment();
+    }
+}
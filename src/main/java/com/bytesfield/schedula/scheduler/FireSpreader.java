@@ -0,0 +1,94 @@
+package com.bytesfield.schedula.scheduler;
+
+import com.bytesfield.schedula.models.entities.Task;
+import com.bytesfield.schedula.scheduler.cron.CompiledCron;
+import com.bytesfield.schedula.utils.TaskHelper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * FireSpreader smooths the top-of-minute herd of cron tasks that all fire at :00.
+ * <p>
+ * A task with a spread window fires at a fixed offset inside that window after its nominal time. The offset is a
+ * hash of the task id, so each task keeps a stable cadence while tasks sharing an expression are spread evenly.
+ * The window is taken from the task itself, or from scheduler.spread.window-seconds for cron tasks without one.
+ * For cron tasks it is capped at scheduler.spread.max-period-fraction of the time to the following fire, so a spread
+ * fire never runs into the next occurrence.
+ * Fires are only ever delayed, never moved earlier, and the nominal next_run_at stored in the database is unchanged.
+ */
+@Component
+public class FireSpreader {
+
+    private final long globalWindowMillis;
+    private final double maxPeriodFraction;
+    private final DistributionSummary offsets;
+
+    public FireSpreader(@Value("${scheduler.spread.window-seconds:0}") long globalWindowSeconds,
+                        @Value("${scheduler.spread.max-period-fraction:0.5}") double maxPeriodFraction,
+                        MeterRegistry meterRegistry) {
+        this.globalWindowMillis = globalWindowSeconds * 1000;
+        this.maxPeriodFraction = maxPeriodFraction;
+        this.offsets = DistributionSummary.builder("schedula.fire.spread.offset")
+                .baseUnit("milliseconds")
+                .description("Offset added to nominal fire times by the spread window")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Computes the fire time of a task being armed; call it once per arm, as every call records the offset.
+     *
+     * @param task    the task being armed
+     * @param nominal the task's nominal fire time
+     * @return the time the task should actually fire
+     */
+    public Instant spread(Task task, Instant nominal) {
+        long windowMillis = windowMillis(task);
+
+        if (nominal == null || windowMillis <= 0) {
+            return nominal;
+        }
+
+        if (TaskHelper.isCronTask(task.getType())) {
+            windowMillis = Math.min(windowMillis, maxWindowMillis(task, nominal));
+
+            if (windowMillis <= 0) {
+                return nominal;
+            }
+        }
+
+        long offset = Math.floorMod(mix(task.getId()), windowMillis);
+
+        offsets.record(offset);
+
+        return nominal.plusMillis(offset);
+    }
+
+    private long windowMillis(Task task) {
+        if (task.getSpreadWindowSeconds() != null) {
+            return task.getSpreadWindowSeconds() * 1000L;
+        }
+
+        return TaskHelper.isCronTask(task.getType()) ? globalWindowMillis : 0;
+    }
+
+    private long maxWindowMillis(Task task, Instant nominal) {
+        long following = CompiledCron.compile(task.getCronExpression()).nextFireAfter(nominal.toEpochMilli());
+
+        return following == CompiledCron.NO_FIRE
+                ? Long.MAX_VALUE
+                : (long) ((following - nominal.toEpochMilli()) * maxPeriodFraction);
+    }
+
+    // SplitMix64 finalizer, so consecutive task ids land far apart inside the window
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+
+        return z ^ (z >>> 31);
+    }
+}
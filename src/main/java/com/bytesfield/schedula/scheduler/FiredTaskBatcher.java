@@ -0,0 +1,194 @@
+package com.bytesfield.schedula.scheduler;
+
+import com.bytesfield.schedula.models.entities.Task;
+import com.bytesfield.schedula.models.enums.TaskStatus;
+import com.bytesfield.schedula.repositories.TaskRepository;
+import com.bytesfield.schedula.scheduler.executors.BoundedTaskExecutor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * FiredTaskBatcher turns fired {@link ScheduledTaskRef}s back into tasks.
+ * <p>
+ * Refs that fire together are collected and their tasks fetched with one query per batch instead of one per timer.
+ * Tasks that were deleted, changed or paused since their timer was armed are skipped; the rest are released through
+ * the {@link FireReleasePacer} to the task handler on the execution executor, highest priority first and each on the
+ * executor lane of its priority. Within a priority, the tasks of different users are interleaved by their
+ * {@link TenantWeights} and queued as one executor flow per user, so one user's burst does not delay other users.
+ * A task the executor rejects, whether because its queue is full or because its delegate refuses the task later, is
+ * handed back as pending and fired again after a delay, and so is every task of the batch still unreleased when the
+ * releasing thread is interrupted.
+ */
+@Slf4j
+public class FiredTaskBatcher {
+
+    private final TaskRepository taskRepository;
+    private final TimerRegistry timerRegistry;
+    private final BoundedTaskExecutor executor;
+    private final FireReleasePacer releasePacer;
+    private final Consumer<Task> taskHandler;
+    private final TenantWeights tenantWeights;
+    private final DueTaskNotifier dueTaskNotifier;
+    private final int batchSize;
+    private final long rejectedRetryMillis;
+
+    private final Queue<ScheduledTaskRef> fired = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    public FiredTaskBatcher(TaskRepository taskRepository, TimerRegistry timerRegistry, BoundedTaskExecutor executor,
+                            FireReleasePacer releasePacer, Consumer<Task> taskHandler, TenantWeights tenantWeights,
+                            DueTaskNotifier dueTaskNotifier, int batchSize, long rejectedRetryMillis) {
+        this.taskRepository = taskRepository;
+        this.timerRegistry = timerRegistry;
+        this.executor = executor;
+        this.releasePacer = releasePacer;
+        this.taskHandler = taskHandler;
+        this.tenantWeights = tenantWeights;
+        this.dueTaskNotifier = dueTaskNotifier;
+        this.batchSize = batchSize;
+        this.rejectedRetryMillis = rejectedRetryMillis;
+    }
+
+    /**
+     * Creates the compact handle a timer holds for a task.
+     */
+    public ScheduledTaskRef newRef(int taskId, long version, Instant fireAt) {
+        return new ScheduledTaskRef(taskId, version, fireAt.toEpochMilli(), this);
+    }
+
+    void fired(ScheduledTaskRef ref) {
+        fired.add(ref);
+
+        if (draining.compareAndSet(false, true)) {
+            drain();
+        }
+    }
+
+    /**
+     * Accepts many refs that fired together, e.g. the members of a cron trigger group.
+     */
+    public void firedAll(Collection<ScheduledTaskRef> refs) {
+        fired.addAll(refs);
+
+        if (draining.compareAndSet(false, true)) {
+            drain();
+        }
+    }
+
+    private void drain() {
+        try {
+            List<ScheduledTaskRef> batch = new ArrayList<>(batchSize);
+
+            while (!fired.isEmpty()) {
+                ScheduledTaskRef ref;
+
+                while (batch.size() < batchSize && (ref = fired.poll()) != null) {
+                    batch.add(ref);
+                }
+
+                process(batch);
+                batch.clear();
+            }
+        } catch (Exception e) {
+            log.error("❌ Loading fired tasks failed: {}", e.getMessage(), e);
+        } finally {
+            draining.set(false);
+        }
+
+        // A ref added after the last poll but before the flag was cleared would otherwise wait for the next fire
+        if (!fired.isEmpty() && draining.compareAndSet(false, true)) {
+            drain();
+        }
+    }
+
+    private void process(List<ScheduledTaskRef> batch) {
+        List<Integer> ids = new ArrayList<>(batch.size());
+
+        for (ScheduledTaskRef ref : batch) {
+            timerRegistry.remove(ref.getTaskId(), ref.getVersion());
+            ids.add(ref.getTaskId());
+        }
+
+        Map<Integer, Task> tasks = new HashMap<>();
+
+        for (Task task : taskRepository.findAllWithUserByIdIn(ids)) {
+            tasks.put(task.getId(), task);
+        }
+
+        List<FiredTask> ready = new ArrayList<>(batch.size());
+        Map<Integer, Integer> firedPerTenant = new HashMap<>();
+
+        for (ScheduledTaskRef ref : batch) {
+            Task task = tasks.get(ref.getTaskId());
+
+            if (task == null || task.getVersion() != ref.getVersion() || task.getStatus() == TaskStatus.PAUSED) {
+                log.info("⏭️ Skipping stale timer for task ID={} (version {})", ref.getTaskId(), ref.getVersion());
+                continue;
+            }
+
+            // A tenant's n-th task goes out in round n / weight, interleaved with the other tenants
+            int position = firedPerTenant.merge(tenantWeights.tenantOf(task), 1, Integer::sum) - 1;
+
+            ready.add(new FiredTask(ref, task, position / tenantWeights.weightOf(task)));
+        }
+
+        ready.sort(Comparator.comparing((FiredTask firedTask) -> firedTask.task().getPriority())
+                .thenComparingInt(FiredTask::round));
+
+        for (int i = 0; i < ready.size(); i++) {
+            Task task = ready.get(i).task();
+
+            try {
+                releasePacer.awaitRelease(ready.get(i).ref());
+                executor.execute(() -> taskHandler.accept(task), task.getPriority().ordinal(),
+                        tenantWeights.tenantOf(task), tenantWeights.weightOf(task),
+                        rejected -> deferUnreleased(task, "rejected by executor", rejected.getMessage()));
+            } catch (RejectedExecutionException e) {
+                deferUnreleased(task, "rejected by executor", e.getMessage());
+            } catch (InterruptedException e) {
+                List<FiredTask> unreleased = ready.subList(i, ready.size());
+
+                log.warn("Releasing fired tasks interrupted, deferring {} unreleased task(s)", unreleased.size());
+
+                // Deferred before restoring the interrupt, so the updates do not trip over the flag
+                for (FiredTask firedTask : unreleased) {
+                    deferUnreleased(firedTask.task(), "not released before interrupt", "release interrupted");
+                }
+
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // The task is still queued and claimed by this live node, so nothing else would ever fire it again
+    private void deferUnreleased(Task task, String what, String reason) {
+        Instant retryAt = Instant.now().plusMillis(rejectedRetryMillis);
+
+        try {
+            if (taskRepository.deferRun(task.getId(), task.getVersion(), retryAt) == 1) {
+                dueTaskNotifier.offer(task.getId(), retryAt);
+            }
+
+            log.warn("⚠️ Fired task ID={} {}, deferred to {}: {}", task.getId(), what, retryAt, reason);
+        } catch (Exception deferFailure) {
+            log.error("❌ Fired task ID={} {} and could not be deferred: {}", task.getId(), what,
+                    deferFailure.getMessage(), deferFailure);
+        }
+    }
+
+    private record FiredTask(ScheduledTaskRef ref, Task task, int round) {
+    }
+}
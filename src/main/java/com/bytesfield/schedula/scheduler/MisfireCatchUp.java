@@ -0,0 +1,230 @@
+package com.bytesfield.schedula.scheduler;
+
+import com.bytesfield.schedula.models.entities.Task;
+import com.bytesfield.schedula.models.enums.MisfirePolicy;
+import com.bytesfield.schedula.models.enums.TaskPriority;
+import com.bytesfield.schedula.producers.ScheduleTaskProducer;
+import com.bytesfield.schedula.repositories.TaskRepository;
+import com.bytesfield.schedula.scheduler.cron.CompiledCron;
+import com.bytesfield.schedula.utils.TaskHelper;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MisfireCatchUp drains tasks that missed their fire time by more than the misfire threshold, e.g. after an outage.
+ * <p>
+ * Overdue tasks are claimed in batches, higher priorities and older fire times first, and handled by their
+ * {@link MisfirePolicy}. Fires are published at no more than scheduler.misfire.catch-up-rate-per-second and marked
+ * as published with one update per batch, so recovering from an outage reaches the providers at a steady rate.
+ * The {@link DueTaskDispatcher} leaves misfired tasks to this job.
+ * <p>
+ * Each run handles at most one batch, sized by the tokens the rate limit has available, and returns; a backlog is
+ * drained over the following runs. The job never waits for the rate limit, so it does not hold up the other
+ * scheduled jobs while catching up after an outage.
+ */
+@Slf4j
+@Component
+public class MisfireCatchUp {
+
+    // Bounds the scan for missed cron fire times of a single task
+    private static final int MAX_MISSED_FIRES_SCANNED = 1_000_000;
+
+    private final TaskRepository taskRepository;
+    private final ScheduleTaskProducer scheduleTaskProducer;
+    private final SchedulerNode schedulerNode;
+    private final PartitionCoordinator partitionCoordinator;
+    private final DueTaskIndex dueTaskIndex;
+    private final MisfirePolicy defaultPolicy;
+    private final Bucket bucket;
+    private final int batchSize;
+    private final long leaseSeconds;
+    private final Counter fired;
+    private final Counter skipped;
+
+    @Value("${scheduler.misfire.threshold-seconds:60}")
+    private long thresholdSeconds;
+
+    @Value("${scheduler.misfire.max-catch-up-fires:10}")
+    private int maxCatchUpFires;
+
+    public MisfireCatchUp(TaskRepository taskRepository, ScheduleTaskProducer scheduleTaskProducer,
+                          SchedulerNode schedulerNode, PartitionCoordinator partitionCoordinator, DueTaskIndex dueTaskIndex,
+                          @Value("${scheduler.misfire.default-policy:FIRE_ONCE_NOW}") MisfirePolicy defaultPolicy,
+                          @Value("${scheduler.misfire.catch-up-rate-per-second:50}") int ratePerSecond,
+                          @Value("${scheduler.misfire.batch-size:200}") int batchSize,
+                          @Value("${scheduler.claim.lease-seconds:60}") long leaseSeconds,
+                          @Value("${scheduler.misfire.check-interval-ms:5000}") long checkIntervalMillis,
+                          MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.scheduleTaskProducer = scheduleTaskProducer;
+        this.schedulerNode = schedulerNode;
+        this.partitionCoordinator = partitionCoordinator;
+        this.dueTaskIndex = dueTaskIndex;
+        this.leaseSeconds = leaseSeconds;
+        this.defaultPolicy = defaultPolicy;
+        // Holds one run interval's worth of tokens, so a run can use what accumulated since the previous one
+        long capacity = Math.max(ratePerSecond, ratePerSecond * checkIntervalMillis / 1000);
+
+        this.bucket = ratePerSecond > 0
+                ? Bucket.builder()
+                .addLimit(Bandwidth.classic(capacity, Refill.greedy(ratePerSecond, Duration.ofSeconds(1))))
+                .build()
+                : null;
+
+        // A claimed batch has to be published well within its lease, or another node could claim it again
+        this.batchSize = ratePerSecond > 0
+                ? (int) Math.max(1, Math.min(batchSize, ratePerSecond * leaseSeconds / 2))
+                : batchSize;
+
+        this.fired = Counter.builder("schedula.misfire.fired").register(meterRegistry);
+        this.skipped = Counter.builder("schedula.misfire.skipped").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${scheduler.misfire.check-interval-ms:5000}")
+    public void catchUp() {
+        List<Integer> partitions = partitionCoordinator.getOwnedPartitions();
+
+        if (partitions.isEmpty()) {
+            return;
+        }
+
+        int budget = bucket != null ? (int) bucket.tryConsumeAsMuchAsPossible(batchSize) : batchSize;
+
+        try {
+            for (TaskPriority priority : TaskPriority.values()) {
+                if (budget == 0) {
+                    break;
+                }
+
+                budget -= catchUp(priority, partitions, budget);
+            }
+        } catch (Exception e) {
+            log.error("❌ Misfire catch-up failed: {}", e.getMessage(), e);
+        } finally {
+            // Tokens of fires that did not happen go back to the limit
+            if (bucket != null && budget > 0) {
+                bucket.addTokens(budget);
+            }
+        }
+    }
+
+    public MisfirePolicy policyOf(Task task) {
+        return task.getMisfirePolicy() != null ? task.getMisfirePolicy() : defaultPolicy;
+    }
+
+    /**
+     * Computes the next fire time of a cron task that just fired. Tasks catching up on missed runs continue from the
+     * run that fired, so the next missed run follows; all others continue from now.
+     */
+    public Instant nextCronRunAfterFire(Task task, Instant firedAt) {
+        Instant after = policyOf(task) == MisfirePolicy.FIRE_ALL_MISSED && firedAt != null ? firedAt : Instant.now();
+
+        return TaskHelper.nextCronRunAt(task.getCronExpression(), after);
+    }
+
+    /**
+     * Claims and handles up to limit misfired tasks of one priority.
+     *
+     * @return the number of tasks fired
+     */
+    private int catchUp(TaskPriority priority, List<Integer> partitions, int limit) {
+        Instant now = Instant.now();
+
+        List<Task> claimedTasks = taskRepository.claimDueTasks(Instant.EPOCH, now.minusSeconds(thresholdSeconds), limit,
+                schedulerNode.getNodeId(), Duration.ofSeconds(leaseSeconds), partitionCoordinator.getPartitionCount(),
+                partitions, priority);
+
+        return claimedTasks.isEmpty() ? 0 : handle(claimedTasks, now);
+    }
+
+    private int handle(List<Task> tasks, Instant now) {
+        List<Task> toFire = new ArrayList<>(tasks.size());
+        List<Integer> toComplete = new ArrayList<>();
+
+        for (Task task : tasks) {
+            MisfirePolicy policy = policyOf(task);
+            boolean cron = TaskHelper.isCronTask(task.getType());
+
+            if (policy == MisfirePolicy.SKIP_TO_NEXT) {
+                Instant next = cron ? TaskHelper.nextCronRunAt(task.getCronExpression(), now) : null;
+
+                if (next == null) {
+                    toComplete.add(task.getId());
+                } else {
+                    taskRepository.scheduleNextRun(task.getId(), task.getLastRunAt(), next);
+                    dueTaskIndex.offer(task.getId(), next);
+                }
+
+                skipped.increment();
+                continue;
+            }
+
+            if (policy == MisfirePolicy.FIRE_ALL_MISSED && cron) {
+                Instant oldest = oldestFireToCatchUp(task, now);
+
+                if (!oldest.equals(task.getNextRunAt())) {
+                    taskRepository.moveNextRunAt(task.getId(), oldest);
+                    task.setNextRunAt(oldest);
+                }
+            }
+
+            toFire.add(task);
+        }
+
+        if (!toComplete.isEmpty()) {
+            taskRepository.completeSkipped(toComplete);
+        }
+
+        if (!toFire.isEmpty()) {
+            publish(toFire);
+        }
+
+        log.info("⏰ Caught up on {} misfired task(s): {} fired, {} skipped", tasks.size(), toFire.size(),
+                tasks.size() - toFire.size());
+
+        return toFire.size();
+    }
+
+    /**
+     * Unconfirmed tasks keep their claim and are caught up again once the lease expires.
+     */
+    private void publish(List<Task> tasks) {
+        List<Task> confirmed = scheduleTaskProducer.sendTasks(tasks);
+
+        if (!confirmed.isEmpty()) {
+            taskRepository.markAllAsPublished(confirmed);
+            fired.increment(confirmed.size());
+        }
+    }
+
+    /**
+     * Finds the oldest of the most recent max-catch-up-fires missed fire times of a cron task.
+     */
+    private Instant oldestFireToCatchUp(Task task, Instant now) {
+        CompiledCron cron = CompiledCron.compile(task.getCronExpression());
+        int window = Math.max(1, maxCatchUpFires);
+        long[] recent = new long[window];
+        long nowMillis = now.toEpochMilli();
+        long fireAt = task.getNextRunAt().toEpochMilli();
+        int missed = 0;
+
+        while (fireAt != CompiledCron.NO_FIRE && fireAt <= nowMillis && missed < MAX_MISSED_FIRES_SCANNED) {
+            recent[missed++ % window] = fireAt;
+            fireAt = cron.nextFireAfter(fireAt);
+        }
+
+        return missed <= window ? task.getNextRunAt() : Instant.ofEpochMilli(recent[missed % window]);
+    }
+}
@@ -0,0 +1,160 @@
+package com.bytesfield.schedula.scheduler;
+
+import com.bytesfield.schedula.repositories.SchedulerNodeHeartbeatRepository;
+import com.bytesfield.schedula.repositories.SchedulerPartitionLeaseRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * PartitionCoordinator spreads scheduling work across nodes.
+ * <p>
+ * Tasks are hashed into a fixed number of partitions by id. Every node heartbeats into scheduler_nodes and
+ * holds time-limited leases on its share of partitions in scheduler_partition_leases. On each renewal the node
+ * recomputes its fair share from the number of live nodes, releases partitions above it and acquires free or
+ * expired ones below it, so partitions move when a node joins or when a dead node's leases run out.
+ */
+@Slf4j
+@Component
+public class PartitionCoordinator {
+
+    private final SchedulerPartitionLeaseRepository leaseRepository;
+    private final SchedulerNodeHeartbeatRepository heartbeatRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String nodeId;
+    private final int partitionCount;
+    private final long leaseSeconds;
+
+    private volatile List<Integer> ownedPartitions = List.of();
+    private boolean partitionsInitialized;
+
+    public PartitionCoordinator(SchedulerPartitionLeaseRepository leaseRepository,
+                                SchedulerNodeHeartbeatRepository heartbeatRepository,
+                                ApplicationEventPublisher eventPublisher,
+                                SchedulerNode schedulerNode,
+                                @Value("${scheduler.partitions.count:64}") int partitionCount,
+                                @Value("${scheduler.partitions.lease-seconds:30}") long leaseSeconds) {
+        this.leaseRepository = leaseRepository;
+        this.heartbeatRepository = heartbeatRepository;
+        this.eventPublisher = eventPublisher;
+        this.nodeId = schedulerNode.getNodeId();
+        this.partitionCount = partitionCount;
+        this.leaseSeconds = leaseSeconds;
+    }
+
+    @Scheduled(fixedDelayString = "${scheduler.partitions.renew-interval-ms:10000}")
+    public synchronized void rebalance() {
+        try {
+            ensurePartitions();
+
+            Instant now = Instant.now();
+            Instant expiresAt = now.plusSeconds(leaseSeconds);
+
+            heartbeatRepository.heartbeat(nodeId, now);
+            leaseRepository.renewLeases(nodeId, expiresAt, now);
+
+            List<Integer> owned = new ArrayList<>(leaseRepository.findOwnedPartitionIds(nodeId, now));
+            int target = fairShare(now);
+
+            if (owned.size() > target) {
+                List<Integer> released = new ArrayList<>(owned.subList(target, owned.size()));
+
+                leaseRepository.release(released, nodeId);
+                owned.removeAll(released);
+            } else if (owned.size() < target) {
+                acquire(owned, target, expiresAt, now);
+            }
+
+            heartbeatRepository.deleteStale(now.minusSeconds(leaseSeconds * 10));
+
+            updateOwnedPartitions(owned);
+        } catch (Exception e) {
+            log.error("❌ Partition rebalance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    public List<Integer> getOwnedPartitions() {
+        return ownedPartitions;
+    }
+
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    public boolean ownsTask(int taskId) {
+        return ownedPartitions.contains(Math.floorMod(taskId, partitionCount));
+    }
+
+    @PreDestroy
+    public synchronized void releaseAll() {
+        try {
+            if (!ownedPartitions.isEmpty()) {
+                leaseRepository.release(ownedPartitions, nodeId);
+            }
+
+            heartbeatRepository.deleteByNodeId(nodeId);
+        } catch (Exception e) {
+            log.warn("Releasing partitions on shutdown failed: {}", e.getMessage());
+        }
+
+        ownedPartitions = List.of();
+    }
+
+    private void ensurePartitions() {
+        if (partitionsInitialized) {
+            return;
+        }
+
+        for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+            leaseRepository.ensurePartition(partitionId);
+        }
+
+        partitionsInitialized = true;
+    }
+
+    private int fairShare(Instant now) {
+        long liveNodes = Math.max(1, heartbeatRepository.countLiveNodes(now.minusSeconds(leaseSeconds)));
+
+        return (int) Math.ceilDiv(partitionCount, liveNodes);
+    }
+
+    private void acquire(List<Integer> owned, int target, Instant expiresAt, Instant now) {
+        List<Integer> available = new ArrayList<>(leaseRepository.findAvailablePartitionIds(now));
+
+        // Shuffle so that nodes starting together do not race for the same partitions
+        Collections.shuffle(available);
+
+        for (Integer partitionId : available) {
+            if (owned.size() >= target) {
+                break;
+            }
+
+            if (leaseRepository.tryAcquire(partitionId, nodeId, expiresAt, now) == 1) {
+                owned.add(partitionId);
+            }
+        }
+
+        Collections.sort(owned);
+    }
+
+    private void updateOwnedPartitions(List<Integer> owned) {
+        List<Integer> previous = ownedPartitions;
+        List<Integer> current = List.copyOf(owned);
+
+        ownedPartitions = current;
+
+        if (!previous.equals(current)) {
+            log.info("🧩 Node {} now owns {}/{} partition(s)", nodeId, current.size(), partitionCount);
+
+            eventPublisher.publishEvent(new PartitionsRebalancedEvent(current));
+        }
+    }
+}
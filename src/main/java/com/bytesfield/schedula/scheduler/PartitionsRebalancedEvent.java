@@ -0,0 +1,11 @@
+package com.bytesfield.schedula.scheduler;
+
+import java.util.List;
+
+/**
+ * Published by {@link PartitionCoordinator} whenever the set of partitions owned by this node changes.
+ *
+ * @param ownedPartitions the partitions this node now owns
+ */
+public record PartitionsRebalancedEvent(List<Integer> ownedPartitions) {
+}
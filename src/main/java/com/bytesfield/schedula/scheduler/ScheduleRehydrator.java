@@ -0,0 +1,254 @@
+package com.bytesfield.schedula.scheduler;
+
+import com.bytesfield.schedula.models.ActiveTaskRef;
+import com.bytesfield.schedula.models.enums.TaskStatus;
+import com.bytesfield.schedula.repositories.SchedulerNodeHeartbeatRepository;
+import com.bytesfield.schedula.repositories.TaskRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ScheduleRehydrator rebuilds the in-memory schedule after a restart.
+ * <p>
+ * Timers armed by a node are lost when it stops, leaving its tasks in QUEUED status where neither the claim nor the
+ * refill queries see them. On startup the active tasks are streamed in keyset-paginated chunks, split into id
+ * ranges that are scanned in parallel: QUEUED tasks armed by a node that is no longer alive are put back to
+ * PENDING, and due tasks in partitions owned by this node are offered to the {@link DueTaskIndex}.
+ * Tasks held by the broker delay queues, or published but not yet armed by any node, count as orphaned once they are
+ * well past their due time.
+ * The scan runs in the background so the web tier becomes ready without waiting for it. Tasks orphaned by other
+ * nodes later on are picked up periodically by a query that only reads the orphaned QUEUED rows.
+ */
+@Slf4j
+@Component
+public class ScheduleRehydrator {
+
+    private final TaskRepository taskRepository;
+    private final SchedulerNodeHeartbeatRepository heartbeatRepository;
+    private final DueTaskIndex dueTaskIndex;
+    private final PartitionCoordinator partitionCoordinator;
+    private final BrokerDelayedDelivery brokerDelayedDelivery;
+    private final String nodeId;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${scheduler.rehydration.page-size:5000}")
+    private int pageSize;
+
+    @Value("${scheduler.rehydration.threads:4}")
+    private int threads;
+
+    @Value("${scheduler.partitions.lease-seconds:30}")
+    private long nodeTimeoutSeconds;
+
+    public ScheduleRehydrator(TaskRepository taskRepository,
+                              SchedulerNodeHeartbeatRepository heartbeatRepository,
+                              DueTaskIndex dueTaskIndex,
+                              PartitionCoordinator partitionCoordinator,
+                              BrokerDelayedDelivery brokerDelayedDelivery,
+                              SchedulerNode schedulerNode) {
+        this.taskRepository = taskRepository;
+        this.heartbeatRepository = heartbeatRepository;
+        this.dueTaskIndex = dueTaskIndex;
+        this.partitionCoordinator = partitionCoordinator;
+        this.brokerDelayedDelivery = brokerDelayedDelivery;
+        this.nodeId = schedulerNode.getNodeId();
+    }
+
+    /**
+     * Releases tasks armed under this node id before a restart. Runs before the RabbitMQ listeners start, so it
+     * cannot release tasks armed by this process.
+     */
+    @PostConstruct
+    public void releasePreviousRun() {
+        try {
+            int released = taskRepository.requeueNodeTasks(nodeId);
+
+            if (released > 0) {
+                log.info("♻️ Released {} task(s) armed by node {} before the restart", released, nodeId);
+            }
+        } catch (Exception e) {
+            log.error("❌ Releasing tasks of the previous run failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread thread = new Thread(this::rehydrate, "schedula-rehydrator");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Periodically recovers tasks left QUEUED by nodes that died after this node started.
+     */
+    @Scheduled(fixedDelayString = "${scheduler.rehydration.orphan-check-interval-ms:60000}",
+            initialDelayString = "${scheduler.rehydration.orphan-check-interval-ms:60000}")
+    public void recoverOrphanedTasks() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            Set<String> liveNodes = findLiveNodes();
+            Instant lostBefore = brokerDelayedDelivery.lostBefore(Instant.now());
+            Pageable page = PageRequest.ofSize(pageSize);
+            Progress progress = new Progress();
+            int lastId = 0;
+            List<ActiveTaskRef> chunk;
+
+            do {
+                chunk = taskRepository.findOrphanedTaskRefsAfter(lastId, liveNodes, BrokerDelayedDelivery.HOLDER,
+                        lostBefore, page);
+
+                if (chunk.isEmpty()) {
+                    break;
+                }
+
+                processChunk(chunk, liveNodes, progress);
+                lastId = chunk.getLast().getTaskId();
+            } while (chunk.size() == pageSize);
+
+            if (progress.requeued.get() > 0) {
+                log.info("♻️ Requeued {} orphaned task(s), {} offered to the due index",
+                        progress.requeued.get(), progress.indexed.get());
+            }
+        } catch (Exception e) {
+            log.error("❌ Recovering orphaned tasks failed: {}", e.getMessage(), e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Scans every active task once.
+     */
+    public void rehydrate() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+
+        long startedAt = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("schedula-rehydrate-"));
+
+        try {
+            int maxTaskId = taskRepository.findMaxTaskId();
+
+            if (maxTaskId == 0) {
+                return;
+            }
+
+            Set<String> liveNodes = findLiveNodes();
+
+            Progress progress = new Progress();
+            int rangeSize = Math.ceilDiv(maxTaskId, threads);
+            List<CompletableFuture<Void>> ranges = new ArrayList<>();
+
+            for (int afterId = 0; afterId < maxTaskId; afterId += rangeSize) {
+                int from = afterId;
+                int upTo = Math.min(maxTaskId, afterId + rangeSize);
+
+                ranges.add(CompletableFuture.runAsync(() -> scanRange(from, upTo, liveNodes, progress), executor));
+            }
+
+            CompletableFuture.allOf(ranges.toArray(CompletableFuture[]::new)).join();
+
+            long tookMillis = Duration.ofNanos(System.nanoTime() - startedAt).toMillis();
+
+            log.info("♻️ Rehydrated {} active task(s) in {} ms: {} orphaned task(s) requeued, {} offered to the due index",
+                    progress.scanned.get(), tookMillis, progress.requeued.get(), progress.indexed.get());
+        } catch (Exception e) {
+            log.error("❌ Schedule rehydration failed: {}", e.getMessage(), e);
+        } finally {
+            executor.shutdownNow();
+            running.set(false);
+        }
+    }
+
+    private Set<String> findLiveNodes() {
+        Set<String> liveNodes = new HashSet<>(heartbeatRepository.findLiveNodeIds(Instant.now().minusSeconds(nodeTimeoutSeconds)));
+        liveNodes.add(nodeId);
+
+        return liveNodes;
+    }
+
+    private void scanRange(int afterId, int upToId, Set<String> liveNodes, Progress progress) {
+        Pageable page = PageRequest.ofSize(pageSize);
+        int lastId = afterId;
+        List<ActiveTaskRef> chunk;
+
+        do {
+            chunk = taskRepository.findActiveTaskRefsAfter(lastId, upToId, page);
+
+            if (chunk.isEmpty()) {
+                break;
+            }
+
+            processChunk(chunk, liveNodes, progress);
+
+            lastId = chunk.getLast().getTaskId();
+
+            log.debug("Rehydration scanned {} task(s) so far, up to id {}", progress.scanned.get(), lastId);
+        } while (chunk.size() == pageSize);
+    }
+
+    private void processChunk(List<ActiveTaskRef> chunk, Set<String> liveNodes, Progress progress) {
+        List<Integer> orphanedIds = new ArrayList<>();
+        Instant now = Instant.now();
+
+        for (ActiveTaskRef ref : chunk) {
+            boolean orphaned = ref.getStatus() == TaskStatus.QUEUED && isOrphaned(ref, liveNodes, now);
+
+            if (orphaned) {
+                orphanedIds.add(ref.getTaskId());
+            }
+
+            if ((orphaned || ref.getStatus() != TaskStatus.QUEUED)
+                    && partitionCoordinator.ownsTask(ref.getTaskId())
+                    && dueTaskIndex.offer(ref.getTaskId(), ref.getNextRunAt())) {
+                progress.indexed.incrementAndGet();
+            }
+        }
+
+        if (!orphanedIds.isEmpty()) {
+            progress.requeued.addAndGet(taskRepository.requeueOrphanedTasks(orphanedIds));
+        }
+
+        progress.scanned.addAndGet(chunk.size());
+    }
+
+    // A QUEUED task without an owner was published and is waiting for a listener to arm it, so like a task held by
+    // the broker it only counts as orphaned once it is well past its due time
+    private boolean isOrphaned(ActiveTaskRef ref, Set<String> liveNodes, Instant now) {
+        if (ref.getClaimedBy() == null || BrokerDelayedDelivery.HOLDER.equals(ref.getClaimedBy())) {
+            return brokerDelayedDelivery.isLost(ref.getNextRunAt(), now);
+        }
+
+        return !liveNodes.contains(ref.getClaimedBy());
+    }
+
+    private static final class Progress {
+        private final AtomicLong scanned = new AtomicLong();
+        private final AtomicLong requeued = new AtomicLong();
+        private final AtomicLong indexed = new AtomicLong();
+    }
+}
@@ -0,0 +1,44 @@
+package com.bytesfield.schedula.scheduler;
+
+import java.time.Instant;
+
+/**
+ * ScheduledTaskRef is what an armed timer holds for a task: its id, the version it was armed for and its fire time.
+ * The task itself is loaded when the timer fires, so a timer never pins a detached entity, its user or its payload
+ * in memory while it waits.
+ */
+public final class ScheduledTaskRef implements Runnable {
+
+    private final int taskId;
+    private final long version;
+    private final long fireAtMillis;
+    private final FiredTaskBatcher batcher;
+
+    ScheduledTaskRef(int taskId, long version, long fireAtMillis, FiredTaskBatcher batcher) {
+        this.taskId = taskId;
+        this.version = version;
+        this.fireAtMillis = fireAtMillis;
+        this.batcher = batcher;
+    }
+
+    public int getTaskId() {
+        return taskId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getFireAtMillis() {
+        return fireAtMillis;
+    }
+
+    public Instant getFireAt() {
+        return Instant.ofEpochMilli(fireAtMillis);
+    }
+
+    @Override
+    public void run() {
+        batcher.fired(this);
+    }
+}
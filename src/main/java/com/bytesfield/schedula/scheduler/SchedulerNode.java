@@ -0,0 +1,39 @@
+package com.bytesfield.schedula.scheduler;
+
+import com.bytesfield.schedula.utils.Helper;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * SchedulerNode identifies this application instance when it claims tasks.
+ * The id is taken from scheduler.node-id, or derived from the host name plus a random suffix.
+ */
+@Slf4j
+@Getter
+@Component
+public class SchedulerNode {
+
+    private final String nodeId;
+
+    public SchedulerNode(@Value("${scheduler.node-id:}") String configuredNodeId) {
+        this.nodeId = StringUtils.hasText(configuredNodeId)
+                ? configuredNodeId
+                : resolveHostName() + "-" + Helper.generateUniqueCharacters(8);
+
+        log.info("🖥️ Scheduler node id: {}", nodeId);
+    }
+
+    private static String resolveHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "schedula";
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.bytesfield.schedula.scheduler;
+
+import com.bytesfield.schedula.dtos.TaskRefMessage;
+import com.bytesfield.schedula.services.utils.CacheService;
+import com.bytesfield.schedula.utils.collections.LongHashSet;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TaskMessageDeduplicator drops task messages that were already delivered, such as broker redeliveries or a batch
+ * published again after its confirms timed out, before the listener does any database work for them.
+ * <p>
+ * A delivery is identified by (task id, version, due epoch): edits and requeues bump the version, so a task that
+ * legitimately has to be scheduled again for the same due time is not mistaken for a duplicate. Keys are first
+ * looked up in a local set split into time buckets, where the oldest bucket is cleared as the window moves on and
+ * each bucket holds at most its share of scheduler.dedup.max-local-entries. Keys missing locally are then claimed in
+ * Redis with SET NX and a TTL of the dedup window, in one pipelined round trip per batch, which also catches
+ * duplicates delivered to other nodes. A delivery only enters the local set once it was processed, and its Redis key
+ * is released again if processing failed, so a message the broker redelivers after a failure is not dropped.
+ * Messages without a version (the legacy JSON format) are not deduplicated, and if Redis is unavailable only the local
+ * set applies.
+ */
+@Slf4j
+@Component
+public class TaskMessageDeduplicator {
+
+    private static final String KEY_PREFIX = "schedula:delivered:";
+
+    private final CacheService cacheService;
+    private final String nodeId;
+    private final long windowSeconds;
+    private final long bucketMillis;
+    private final int maxEntriesPerBucket;
+    private final LongHashSet[] buckets;
+    private final long[] bucketSlots;
+    private final Counter droppedLocally;
+    private final Counter droppedByRedis;
+
+    public TaskMessageDeduplicator(CacheService cacheService, SchedulerNode schedulerNode,
+                                   @Value("${scheduler.dedup.window-seconds:600}") long windowSeconds,
+                                   @Value("${scheduler.dedup.buckets:10}") int bucketCount,
+                                   @Value("${scheduler.dedup.max-local-entries:1000000}") int maxLocalEntries,
+                                   MeterRegistry meterRegistry) {
+        this.cacheService = cacheService;
+        this.nodeId = schedulerNode.getNodeId();
+        this.windowSeconds = windowSeconds;
+        this.bucketMillis = Math.max(1, TimeUnit.SECONDS.toMillis(windowSeconds) / bucketCount);
+        this.maxEntriesPerBucket = Math.max(1, maxLocalEntries / bucketCount);
+        this.buckets = new LongHashSet[bucketCount];
+        this.bucketSlots = new long[bucketCount];
+
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new LongHashSet();
+            bucketSlots[i] = Long.MIN_VALUE;
+        }
+
+        Gauge.builder("schedula.dedup.local.size", this, TaskMessageDeduplicator::localSize)
+                .description("Delivery keys held by the local dedup window")
+                .register(meterRegistry);
+        this.droppedLocally = Counter.builder("schedula.dedup.dropped").tag("source", "local").register(meterRegistry);
+        this.droppedByRedis = Counter.builder("schedula.dedup.dropped").tag("source", "redis").register(meterRegistry);
+    }
+
+    /**
+     * Claims the deliveries of a batch of messages and keeps the first delivery of each. The caller must report the
+     * outcome with {@link #processed} or {@link #failed}.
+     *
+     * @return the messages delivered for the first time within the dedup window
+     */
+    public List<TaskRefMessage> retainFirstDeliveries(Collection<TaskRefMessage> messages) {
+        List<TaskRefMessage> firstDeliveries = new ArrayList<>(messages.size());
+        List<TaskRefMessage> candidates = new ArrayList<>(messages.size());
+        LongHashSet batchKeys = new LongHashSet(messages.size());
+
+        synchronized (this) {
+            long slot = System.currentTimeMillis() / bucketMillis;
+
+            for (TaskRefMessage message : messages) {
+                if (message.getVersion() == TaskRefMessage.UNKNOWN_VERSION) {
+                    firstDeliveries.add(message);
+                    continue;
+                }
+
+                long key = keyOf(message);
+
+                if (!batchKeys.add(key) || containsLocally(key, slot)) {
+                    droppedLocally.increment();
+                    continue;
+                }
+
+                candidates.add(message);
+            }
+        }
+
+        List<Boolean> claimed = claimInRedis(candidates);
+
+        for (int i = 0; i < candidates.size(); i++) {
+            if (claimed != null && !claimed.get(i)) {
+                droppedByRedis.increment();
+                continue;
+            }
+
+            firstDeliveries.add(candidates.get(i));
+        }
+
+        return firstDeliveries;
+    }
+
+    /**
+     * Remembers deliveries that were processed, so their duplicates are dropped without asking Redis.
+     */
+    public synchronized void processed(Collection<TaskRefMessage> messages) {
+        long slot = System.currentTimeMillis() / bucketMillis;
+
+        for (TaskRefMessage message : messages) {
+            if (message.getVersion() != TaskRefMessage.UNKNOWN_VERSION) {
+                addLocally(keyOf(message), slot);
+            }
+        }
+    }
+
+    /**
+     * Releases the Redis keys of deliveries whose processing failed, so their redelivery is accepted.
+     */
+    public void failed(Collection<TaskRefMessage> messages) {
+        for (TaskRefMessage message : messages) {
+            if (message.getVersion() == TaskRefMessage.UNKNOWN_VERSION) {
+                continue;
+            }
+
+            try {
+                cacheService.deleteValueIfEquals(redisKeyOf(message), nodeId);
+            } catch (Exception e) {
+                log.warn("⚠️ Could not release the delivery key of task ID={}: {}", message.getTaskId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return for each candidate, whether this node claimed it, or null if Redis could not be reached
+     */
+    private List<Boolean> claimInRedis(List<TaskRefMessage> candidates) {
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> keys = new ArrayList<>(candidates.size());
+
+        for (TaskRefMessage message : candidates) {
+            keys.add(redisKeyOf(message));
+        }
+
+        try {
+            return cacheService.setValuesIfAbsent(keys, nodeId, windowSeconds, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("⚠️ Could not check {} delivery key(s) in Redis, relying on the local dedup window: {}",
+                    keys.size(), e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean containsLocally(long key, long slot) {
+        for (int i = 0; i < buckets.length; i++) {
+            if (bucketSlots[i] > slot - buckets.length && buckets[i].contains(key)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void addLocally(long key, long slot) {
+        int index = (int) Math.floorMod(slot, (long) buckets.length);
+
+        if (bucketSlots[index] != slot) {
+            buckets[index].clear();
+            bucketSlots[index] = slot;
+        }
+
+        // A full bucket only stops local caching, Redis still sees every key
+        if (buckets[index].size() < maxEntriesPerBucket) {
+            buckets[index].add(key);
+        }
+    }
+
+    private synchronized int localSize() {
+        long slot = System.currentTimeMillis() / bucketMillis;
+        int size = 0;
+
+        for (int i = 0; i < buckets.length; i++) {
+            if (bucketSlots[i] > slot - buckets.length) {
+                size += buckets[i].size();
+            }
+        }
+
+        return size;
+    }
+
+    private static String redisKeyOf(TaskRefMessage message) {
+        return KEY_PREFIX + message.getTaskId() + ":" + message.getVersion() + ":" + message.getDueAtMillis();
+    }
+
+    private static long keyOf(TaskRefMessage message) {
+        long hash = message.getTaskId() * 0x9E3779B97F4A7C15L;
+
+        hash = (hash ^ message.getVersion()) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ message.getDueAtMillis()) * 0x94D049BB133111EBL;
+
+        return hash ^ (hash >>> 31);
+    }
+}
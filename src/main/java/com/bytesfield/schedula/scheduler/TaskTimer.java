@@ -0,0 +1,26 @@
+package com.bytesfield.schedula.scheduler;
+
+import java.time.Instant;
+
+/**
+ * TaskTimer is the engine ScheduleTaskListener hands tasks to once they are due for in-memory scheduling.
+ * Implementations decide how pending timeouts are stored and how expiry is detected.
+ */
+public interface TaskTimer {
+
+    /**
+     * Schedules a task to run once at the given instant.
+     *
+     * @param task   the task to run
+     * @param fireAt the instant at which the task should run; instants in the past fire on the next tick
+     * @return a handle that can be used to cancel the timeout
+     */
+    TimerHandle schedule(Runnable task, Instant fireAt);
+
+    /**
+     * Returns the number of timeouts that are scheduled but have neither fired nor been cancelled.
+     *
+     * @return the number of pending timeouts
+     */
+    int pendingCount();
+}
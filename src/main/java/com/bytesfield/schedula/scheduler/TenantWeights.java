@@ -0,0 +1,38 @@
+package com.bytesfield.schedula.scheduler;
+
+import com.bytesfield.schedula.models.entities.Task;
+import com.bytesfield.schedula.models.entities.User;
+import com.bytesfield.schedula.models.enums.UserRole;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * TenantWeights gives each user's fired tasks a fair-share weight based on the user's role. Users with a higher
+ * weight get proportionally more execution slots while several users have tasks waiting.
+ */
+@Component
+public class TenantWeights {
+
+    private final Map<UserRole, Integer> weights = new EnumMap<>(UserRole.class);
+
+    public TenantWeights(@Value("${scheduler.fairness.weight.admin:4}") int adminWeight,
+                         @Value("${scheduler.fairness.weight.developer:2}") int developerWeight,
+                         @Value("${scheduler.fairness.weight.user:1}") int userWeight) {
+        weights.put(UserRole.ADMIN, Math.max(1, adminWeight));
+        weights.put(UserRole.DEVELOPER, Math.max(1, developerWeight));
+        weights.put(UserRole.USER, Math.max(1, userWeight));
+    }
+
+    public int weightOf(Task task) {
+        User user = task.getUser();
+
+        return user == null || user.getRole() == null ? 1 : weights.get(user.getRole());
+    }
+
+    public int tenantOf(Task task) {
+        return task.getUser() == null ? 0 : task.getUser().getId();
+    }
+}
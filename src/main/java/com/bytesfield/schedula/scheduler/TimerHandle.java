@@ -0,0 +1,22 @@
+package com.bytesfield.schedula.scheduler;
+
+import java.time.Instant;
+
+/**
+ * A handle to a timeout scheduled on a {@link TaskTimer}.
+ */
+public interface TimerHandle {
+
+    /**
+     * Cancels the timeout if it has not fired yet.
+     *
+     * @return true if the timeout was cancelled by this call, false if it had already fired or been cancelled
+     */
+    boolean cancel();
+
+    boolean isCancelled();
+
+    boolean isExpired();
+
+    Instant getFireAt();
+}
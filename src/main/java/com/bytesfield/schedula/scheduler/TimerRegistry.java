@@ -0,0 +1,108 @@
+package com.bytesfield.schedula.scheduler;
+
+import com.bytesfield.schedula.utils.collections.IntObjectHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * TimerRegistry tracks the live timer of every task armed on this node, keyed by task id.
+ * <p>
+ * Each timer is registered with the task version it was armed for. Arming a newer version replaces and cancels the
+ * older timer, and {@link #cancelStale(int, long)} cancels a timer as soon as the task is updated, paused or deleted,
+ * so stale timers neither fire nor keep references alive until their fire time.
+ */
+@Slf4j
+@Component
+public class TimerRegistry {
+
+    private final IntObjectHashMap<Registration> timers = new IntObjectHashMap<>(1024);
+
+    /**
+     * Registers a newly armed timer. If a timer for a newer version of the task is already registered, the new
+     * timer is the stale one and is cancelled instead.
+     *
+     * @param taskId  the task id
+     * @param version the task version the timer was armed for
+     * @param handle  the timer handle
+     * @return true if the timer was registered, false if it was cancelled as stale
+     */
+    public boolean register(int taskId, long version, TimerHandle handle) {
+        Registration previous;
+
+        synchronized (timers) {
+            previous = timers.get(taskId);
+
+            if (previous != null && previous.version > version) {
+                handle.cancel();
+                return false;
+            }
+
+            timers.put(taskId, new Registration(version, handle));
+
+            // A timer due immediately may already have fired and tried to remove itself before it was registered
+            if (handle.isExpired()) {
+                timers.remove(taskId);
+            }
+        }
+
+        if (previous != null && previous.handle != handle) {
+            previous.handle.cancel();
+        }
+
+        return true;
+    }
+
+    /**
+     * Cancels the timer of a task if it was armed for a version older than the given one.
+     *
+     * @param taskId     the task id
+     * @param minVersion the oldest version still allowed to fire
+     * @return true if a timer was cancelled
+     */
+    public boolean cancelStale(int taskId, long minVersion) {
+        Registration registration;
+
+        synchronized (timers) {
+            registration = timers.get(taskId);
+
+            if (registration == null || registration.version >= minVersion) {
+                return false;
+            }
+
+            timers.remove(taskId);
+        }
+
+        boolean cancelled = registration.handle.cancel();
+
+        if (cancelled) {
+            log.info("🛑 Cancelled timer for task ID={} (version {})", taskId, registration.version);
+        }
+
+        return cancelled;
+    }
+
+    /**
+     * Forgets a timer that fired, unless it has been replaced in the meantime.
+     *
+     * @param taskId  the task id
+     * @param version the version the fired timer was armed for
+     */
+    public void remove(int taskId, long version) {
+        synchronized (timers) {
+            Registration registration = timers.get(taskId);
+
+            if (registration != null && registration.version == version) {
+                timers.remove(taskId);
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (timers) {
+            return timers.size();
+        }
+    }
+
+    private record Registration(long version, TimerHandle handle) {
+    }
+}
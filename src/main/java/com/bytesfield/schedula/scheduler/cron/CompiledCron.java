@@ -0,0 +1,594 @@
+package com.bytesfield.schedula.scheduler.cron;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CompiledCron is the single cron representation used for both validation and execution.
+ * <p>
+ * Expressions use the Quartz syntax the API has always accepted: six or seven fields
+ * (second, minute, hour, day-of-month, month, day-of-week, optional year), day-of-week numbered 1=SUN..7=SAT,
+ * exactly one of day-of-month and day-of-week set to '?', plus the L, W and # modifiers.
+ * Each field is compiled once into a bitset, and instances are interned by normalized expression so tasks sharing
+ * an expression share one object. {@link #nextFireAfter(long)} walks the bitsets with plain arithmetic on epoch days
+ * and does not allocate for fixed-offset zones such as UTC.
+ */
+public final class CompiledCron {
+
+    public static final long NO_FIRE = -1L;
+
+    private static final int MIN_YEAR = 1970;
+    private static final int MAX_YEAR = 2299;
+    private static final int MAX_CACHED = 10_000;
+    private static final int SECONDS_PER_DAY = 86_400;
+    private static final String[] MONTH_NAMES = {"JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"};
+    private static final String[] DAY_NAMES = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+
+    private static final Map<String, CompiledCron> CACHE = new ConcurrentHashMap<>();
+
+    private final String expression;
+    private final ZoneRules zoneRules;
+    private final int fixedOffsetSeconds;
+    private final boolean fixedOffset;
+
+    private final long seconds;
+    private final long minutes;
+    private final long hours;
+    private final long months;
+    private final long[] years;
+
+    private final boolean dayOfWeekMode;
+    private final long daysOfMonth;
+    private final int lastDayOffset;
+    private final boolean nearestWeekday;
+    private final int nearestWeekdayDay;
+    private final long daysOfWeek;
+    private final int lastDayOfWeek;
+    private final int nthDayOfWeek;
+    private final int nthWeek;
+
+    private CompiledCron(String expression, ZoneId zone) {
+        String[] fields = expression.split(" ");
+
+        if (fields.length < 6 || fields.length > 7) {
+            throw new IllegalArgumentException("Cron expression must have 6 or 7 fields: " + expression);
+        }
+
+        this.expression = expression;
+        this.zoneRules = zone.getRules();
+        this.fixedOffset = zoneRules.isFixedOffset();
+        this.fixedOffsetSeconds = fixedOffset ? zoneRules.getOffset(Instant.EPOCH).getTotalSeconds() : 0;
+
+        this.seconds = parseField(fields[0], 0, 59, null);
+        this.minutes = parseField(fields[1], 0, 59, null);
+        this.hours = parseField(fields[2], 0, 23, null);
+        this.months = parseField(fields[4], 1, 12, MONTH_NAMES);
+        this.years = fields.length == 7 ? parseYears(fields[6]) : null;
+
+        String dayOfMonth = fields[3];
+        String dayOfWeek = fields[5];
+        boolean noDayOfMonth = "?".equals(dayOfMonth);
+        boolean noDayOfWeek = "?".equals(dayOfWeek);
+
+        if (noDayOfMonth == noDayOfWeek) {
+            throw new IllegalArgumentException("Exactly one of day-of-month and day-of-week must be '?': " + expression);
+        }
+
+        this.dayOfWeekMode = noDayOfMonth;
+
+        int parsedLastDayOffset = -1;
+        boolean parsedNearestWeekday = false;
+        int parsedNearestWeekdayDay = 0;
+        long parsedDaysOfMonth = 0;
+
+        if (!noDayOfMonth) {
+            if (dayOfMonth.startsWith("L")) {
+                String rest = dayOfMonth.substring(1);
+
+                if (rest.isEmpty() || rest.equals("W")) {
+                    parsedNearestWeekday = !rest.isEmpty();
+                    parsedLastDayOffset = 0;
+                } else if (rest.startsWith("-")) {
+                    parsedLastDayOffset = parseNumber(rest.substring(1), 0, 30);
+                } else {
+                    throw new IllegalArgumentException("Invalid day-of-month: " + dayOfMonth);
+                }
+            } else if (dayOfMonth.endsWith("W")) {
+                parsedNearestWeekday = true;
+                parsedNearestWeekdayDay = parseNumber(dayOfMonth.substring(0, dayOfMonth.length() - 1), 1, 31);
+            } else {
+                parsedDaysOfMonth = parseField(dayOfMonth, 1, 31, null);
+            }
+        }
+
+        this.daysOfMonth = parsedDaysOfMonth;
+        this.lastDayOffset = parsedLastDayOffset;
+        this.nearestWeekday = parsedNearestWeekday;
+        this.nearestWeekdayDay = parsedNearestWeekdayDay;
+
+        int parsedLastDayOfWeek = 0;
+        int parsedNthDayOfWeek = 0;
+        int parsedNthWeek = 0;
+        long parsedDaysOfWeek = 0;
+
+        if (!noDayOfWeek) {
+            int hash = dayOfWeek.indexOf('#');
+
+            if (hash > 0) {
+                parsedNthDayOfWeek = parseValue(dayOfWeek.substring(0, hash), 1, 7, DAY_NAMES);
+                parsedNthWeek = parseNumber(dayOfWeek.substring(hash + 1), 1, 5);
+            } else if (dayOfWeek.equals("L")) {
+                // A bare L means Saturday, not the last Saturday of the month
+                parsedDaysOfWeek = 1L << 7;
+            } else if (dayOfWeek.length() > 1 && dayOfWeek.endsWith("L")) {
+                parsedLastDayOfWeek = parseValue(dayOfWeek.substring(0, dayOfWeek.length() - 1), 1, 7, DAY_NAMES);
+            } else {
+                parsedDaysOfWeek = parseField(dayOfWeek, 1, 7, DAY_NAMES);
+            }
+        }
+
+        this.daysOfWeek = parsedDaysOfWeek;
+        this.lastDayOfWeek = parsedLastDayOfWeek;
+        this.nthDayOfWeek = parsedNthDayOfWeek;
+        this.nthWeek = parsedNthWeek;
+    }
+
+    /**
+     * Returns the shared compiled form of an expression, evaluated in the system default time zone.
+     *
+     * @param expression the cron expression
+     * @return the compiled expression
+     * @throws IllegalArgumentException if the expression is invalid
+     */
+    public static CompiledCron compile(String expression) {
+        if (expression == null) {
+            throw new IllegalArgumentException("Cron expression must not be null");
+        }
+
+        String normalized = normalize(expression);
+        CompiledCron cached = CACHE.get(normalized);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        CompiledCron compiled = new CompiledCron(normalized, ZoneId.systemDefault());
+
+        if (CACHE.size() < MAX_CACHED) {
+            CompiledCron existing = CACHE.putIfAbsent(normalized, compiled);
+
+            return existing != null ? existing : compiled;
+        }
+
+        return compiled;
+    }
+
+    /**
+     * Compiles an expression for the given time zone without interning it.
+     *
+     * @param expression the cron expression
+     * @param zone       the time zone fire times are computed in
+     * @return the compiled expression
+     * @throws IllegalArgumentException if the expression is invalid
+     */
+    static CompiledCron compile(String expression, ZoneId zone) {
+        return new CompiledCron(normalize(expression), zone);
+    }
+
+    public static boolean isValid(String expression) {
+        try {
+            compile(expression);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Normalizes an expression so equivalent spellings intern to the same instance.
+     *
+     * @param expression the cron expression
+     * @return the expression trimmed, upper-cased and with single spaces between fields
+     */
+    public static String normalize(String expression) {
+        return String.join(" ", expression.trim().toUpperCase(Locale.ROOT).split("\\s+"));
+    }
+
+    /**
+     * Computes the first fire time strictly after the given time.
+     *
+     * @param epochMillis the time to search from
+     * @return the next fire time in epoch milliseconds, or {@link #NO_FIRE} if the expression never fires again
+     */
+    public long nextFireAfter(long epochMillis) {
+        long afterSecond = Math.floorDiv(epochMillis, 1000) + 1;
+
+        if (fixedOffset) {
+            long local = nextLocalSecond(afterSecond + fixedOffsetSeconds);
+
+            return local == NO_FIRE ? NO_FIRE : (local - fixedOffsetSeconds) * 1000;
+        }
+
+        long localAfter = afterSecond + zoneRules.getOffset(Instant.ofEpochSecond(afterSecond)).getTotalSeconds();
+
+        while (true) {
+            long local = nextLocalSecond(localAfter);
+
+            if (local == NO_FIRE) {
+                return NO_FIRE;
+            }
+
+            // Local times in a DST gap resolve to the instant after the transition, as ZonedDateTime does
+            long offset = zoneRules.getOffset(LocalDateTime.ofEpochSecond(local, 0, ZoneOffset.UTC)).getTotalSeconds();
+            long fireSecond = local - offset;
+
+            if (fireSecond >= afterSecond) {
+                return fireSecond * 1000;
+            }
+
+            localAfter = local + 1;
+        }
+    }
+
+    /**
+     * Computes consecutive fire times after the given time.
+     *
+     * @param epochMillis the time to search from
+     * @param out         receives the fire times in epoch milliseconds, up to its length
+     * @return the number of fire times written, lower than out.length if the expression stops firing
+     */
+    public int nextFireTimes(long epochMillis, long[] out) {
+        int count = 0;
+        long after = epochMillis;
+
+        while (count < out.length) {
+            long next = nextFireAfter(after);
+
+            if (next == NO_FIRE) {
+                break;
+            }
+
+            out[count++] = next;
+            after = next;
+        }
+
+        return count;
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    private long nextLocalSecond(long localSecond) {
+        long epochDay = Math.floorDiv(localSecond, SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(localSecond, SECONDS_PER_DAY);
+        int hour = secondOfDay / 3600;
+        int minute = secondOfDay / 60 % 60;
+        int second = secondOfDay % 60;
+
+        while (true) {
+            // Civil date from epoch day, see https://howardhinnant.github.io/date_algorithms.html
+            long z = epochDay + 719_468;
+            long era = Math.floorDiv(z, 146_097);
+            long dayOfEra = z - era * 146_097;
+            long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+            long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+            long shiftedMonth = (5 * dayOfYear + 2) / 153;
+            int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+            int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+            int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+
+            if (year > MAX_YEAR) {
+                return NO_FIRE;
+            }
+
+            if (!matchesYear(year)) {
+                int nextYear = nextYear(year + 1);
+
+                if (nextYear < 0) {
+                    return NO_FIRE;
+                }
+
+                epochDay = toEpochDay(nextYear, 1, 1);
+                hour = minute = second = 0;
+                continue;
+            }
+
+            if (!isSet(months, month)) {
+                int nextMonth = nextSetBit(months, month + 1);
+
+                epochDay = nextMonth < 0 ? toEpochDay(year + 1, 1, 1) : toEpochDay(year, nextMonth, 1);
+                hour = minute = second = 0;
+                continue;
+            }
+
+            if (!matchesDay(year, month, day, epochDay)) {
+                epochDay++;
+                hour = minute = second = 0;
+                continue;
+            }
+
+            int nextHour = nextSetBit(hours, hour);
+
+            if (nextHour < 0) {
+                epochDay++;
+                hour = minute = second = 0;
+                continue;
+            }
+
+            if (nextHour != hour) {
+                hour = nextHour;
+                minute = second = 0;
+            }
+
+            int nextMinute = nextSetBit(minutes, minute);
+
+            if (nextMinute < 0) {
+                minute = second = 0;
+
+                if (++hour > 23) {
+                    epochDay++;
+                    hour = 0;
+                }
+                continue;
+            }
+
+            if (nextMinute != minute) {
+                minute = nextMinute;
+                second = 0;
+            }
+
+            int nextSecond = nextSetBit(seconds, second);
+
+            if (nextSecond < 0) {
+                second = 0;
+
+                if (++minute > 59) {
+                    minute = 0;
+
+                    if (++hour > 23) {
+                        epochDay++;
+                        hour = 0;
+                    }
+                }
+                continue;
+            }
+
+            return epochDay * SECONDS_PER_DAY + hour * 3600L + minute * 60L + nextSecond;
+        }
+    }
+
+    private boolean matchesDay(int year, int month, int day, long epochDay) {
+        int monthLength = monthLength(year, month);
+
+        if (dayOfWeekMode) {
+            int dayOfWeek = dayOfWeek(epochDay);
+
+            if (lastDayOfWeek != 0) {
+                return dayOfWeek == lastDayOfWeek && day + 7 > monthLength;
+            }
+
+            if (nthWeek != 0) {
+                return dayOfWeek == nthDayOfWeek && (day - 1) / 7 + 1 == nthWeek;
+            }
+
+            return isSet(daysOfWeek, dayOfWeek);
+        }
+
+        if (lastDayOffset >= 0 || nearestWeekday) {
+            // Quartz does not fall back to the last day for nW in a month shorter than n: it rolls day n over into the
+            // next month and only fires if that is a Saturday, moved back to the Friday that ends this month
+            if (lastDayOffset < 0 && nearestWeekdayDay > monthLength) {
+                return nearestWeekdayDay == monthLength + 1 && day == monthLength && dayOfWeek(epochDay + 1) == 7;
+            }
+
+            int target = lastDayOffset >= 0 ? monthLength - lastDayOffset : nearestWeekdayDay;
+
+            if (nearestWeekday) {
+                target = nearestWeekday(target, monthLength, epochDay - day + 1);
+            }
+
+            return day == target;
+        }
+
+        return isSet(daysOfMonth, day);
+    }
+
+    private static int nearestWeekday(int target, int monthLength, long firstOfMonth) {
+        int dayOfWeek = dayOfWeek(firstOfMonth + target - 1);
+
+        if (dayOfWeek == 7) {
+            return target == 1 ? target + 2 : target - 1;
+        }
+
+        if (dayOfWeek == 1) {
+            return target == monthLength ? target - 2 : target + 1;
+        }
+
+        return target;
+    }
+
+    private boolean matchesYear(int year) {
+        if (years == null) {
+            return year >= MIN_YEAR;
+        }
+
+        int index = year - MIN_YEAR;
+
+        return index >= 0 && (years[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private int nextYear(int from) {
+        for (int year = Math.max(from, MIN_YEAR); year <= MAX_YEAR; year++) {
+            if (matchesYear(year)) {
+                return year;
+            }
+        }
+
+        return -1;
+    }
+
+    private static int dayOfWeek(long epochDay) {
+        // 1970-01-01 was a Thursday (5 with 1=SUN)
+        return (int) Math.floorMod(epochDay + 4, 7) + 1;
+    }
+
+    private static int monthLength(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    private static long toEpochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+
+        return era * 146_097 + dayOfEra - 719_468;
+    }
+
+    private static boolean isSet(long bits, int index) {
+        return (bits & (1L << index)) != 0;
+    }
+
+    private static int nextSetBit(long bits, int from) {
+        if (from > 63) {
+            return -1;
+        }
+
+        long masked = bits & (-1L << from);
+
+        return masked == 0 ? -1 : Long.numberOfTrailingZeros(masked);
+    }
+
+    private static long parseField(String field, int min, int max, String[] names) {
+        long bits = 0;
+
+        for (String item : field.split(",", -1)) {
+            bits |= parseItem(item, min, max, names);
+        }
+
+        return bits;
+    }
+
+    private static long parseItem(String item, int min, int max, String[] names) {
+        if (item.isEmpty()) {
+            throw new IllegalArgumentException("Empty cron field item");
+        }
+
+        String range = item;
+        int step = 1;
+        int slash = item.indexOf('/');
+
+        if (slash >= 0) {
+            range = item.substring(0, slash);
+            step = parseNumber(item.substring(slash + 1), 1, max);
+        }
+
+        int start;
+        int end;
+
+        if (range.equals("*") || range.isEmpty()) {
+            start = min;
+            end = max;
+        } else {
+            int dash = range.indexOf('-');
+
+            if (dash > 0) {
+                start = parseValue(range.substring(0, dash), min, max, names);
+                end = parseValue(range.substring(dash + 1), min, max, names);
+            } else {
+                start = parseValue(range, min, max, names);
+                end = slash >= 0 ? max : start;
+            }
+        }
+
+        long bits = 0;
+        int span = end >= start ? end - start : end - start + (max - min + 1);
+
+        // Ranges such as FRI-MON wrap around the end of the field
+        for (int offset = 0; offset <= span; offset += step) {
+            int value = start + offset;
+
+            bits |= 1L << (value > max ? value - (max - min + 1) : value);
+        }
+
+        return bits;
+    }
+
+    private static int parseValue(String value, int min, int max, String[] names) {
+        if (names != null) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(value)) {
+                    return i + 1;
+                }
+            }
+        }
+
+        return parseNumber(value, min, max);
+    }
+
+    private static int parseNumber(String value, int min, int max) {
+        int number;
+
+        try {
+            number = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cron value: " + value);
+        }
+
+        if (number < min || number > max) {
+            throw new IllegalArgumentException("Cron value " + number + " out of range " + min + "-" + max);
+        }
+
+        return number;
+    }
+
+    private static long[] parseYears(String field) {
+        long[] bits = new long[(MAX_YEAR - MIN_YEAR) / 64 + 1];
+
+        for (String item : field.split(",", -1)) {
+            String range = item;
+            int step = 1;
+            int slash = item.indexOf('/');
+
+            if (slash >= 0) {
+                range = item.substring(0, slash);
+                step = parseNumber(item.substring(slash + 1), 1, MAX_YEAR - MIN_YEAR);
+            }
+
+            int start = MIN_YEAR;
+            int end = MAX_YEAR;
+
+            if (!range.equals("*") && !range.isEmpty()) {
+                int dash = range.indexOf('-');
+
+                start = parseNumber(dash > 0 ? range.substring(0, dash) : range, MIN_YEAR, MAX_YEAR);
+                end = dash > 0 ? parseNumber(range.substring(dash + 1), start, MAX_YEAR) : (slash >= 0 ? MAX_YEAR : start);
+            }
+
+            for (int year = start; year <= end; year += step) {
+                int index = year - MIN_YEAR;
+
+                bits[index >>> 6] |= 1L << index;
+            }
+        }
+
+        return bits;
+    }
+}
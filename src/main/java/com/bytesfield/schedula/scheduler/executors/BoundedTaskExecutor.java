@@ -0,0 +1,274 @@
+package com.bytesfield.schedula.scheduler.executors;
+
+import com.bytesfield.schedula.utils.collections.DeficitRoundRobinQueue;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * BoundedTaskExecutor runs fired tasks on a delegate executor with a cap on how many run at once.
+ * <p>
+ * Tasks above the concurrency limit wait in a bounded queue and are started as running tasks finish, so a virtual
+ * thread delegate cannot flood the mail provider or the database pool. Tasks are rejected once the queue is full.
+ * <p>
+ * The queue can be split into weighted lanes: free slots go to the lanes by weighted round-robin, lane 0 first,
+ * so a busy lane gets its share of the slots without starving the others. Within a lane, commands can belong to
+ * weighted flows, e.g. one per user, that are served by deficit round-robin, so a burst from one flow does not hold
+ * back the others in the same lane.
+ * A command the delegate rejects once it left the queue is handed to the rejection handler it was queued with, since
+ * its submitter has already returned.
+ * Queue depth, active and completed tasks and rejections are published as metrics tagged with the executor name.
+ */
+@Slf4j
+public class BoundedTaskExecutor implements Executor {
+
+    private final String name;
+    private final ExecutorService delegate;
+    private final Semaphore permits;
+    private final DeficitRoundRobinQueue<QueuedCommand>[] lanes;
+    private final int[] laneWeights;
+    private final int[] laneCredits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final int queueCapacity;
+    private final Counter completed;
+    private final Counter rejected;
+
+    public BoundedTaskExecutor(String name, ExecutorService delegate, int maxConcurrency, int queueCapacity,
+                               MeterRegistry meterRegistry) {
+        this(name, delegate, maxConcurrency, queueCapacity, new int[]{1}, meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    public BoundedTaskExecutor(String name, ExecutorService delegate, int maxConcurrency, int queueCapacity,
+                               int[] laneWeights, MeterRegistry meterRegistry) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be positive");
+        }
+
+        if (laneWeights.length == 0 || Arrays.stream(laneWeights).anyMatch(weight -> weight < 1)) {
+            throw new IllegalArgumentException("laneWeights must be positive");
+        }
+
+        this.name = name;
+        this.lanes = new DeficitRoundRobinQueue[laneWeights.length];
+        this.laneWeights = laneWeights.clone();
+        this.laneCredits = laneWeights.clone();
+
+        for (int lane = 0; lane < lanes.length; lane++) {
+            lanes[lane] = new DeficitRoundRobinQueue<>();
+        }
+
+        this.delegate = delegate;
+        this.permits = new Semaphore(maxConcurrency);
+        this.queueCapacity = queueCapacity;
+
+        Gauge.builder("schedula.executor.queue.depth", queued, AtomicInteger::get)
+                .tag("executor", name)
+                .description("Fired tasks waiting for a free execution slot")
+                .register(meterRegistry);
+        Gauge.builder("schedula.executor.queue.flows", this, BoundedTaskExecutor::getQueuedFlowCount)
+                .tag("executor", name)
+                .description("Flows, e.g. users, with fired tasks waiting for a slot")
+                .register(meterRegistry);
+        Gauge.builder("schedula.executor.active", active, AtomicInteger::get)
+                .tag("executor", name)
+                .description("Fired tasks currently running")
+                .register(meterRegistry);
+        this.completed = Counter.builder("schedula.executor.completed")
+                .tag("executor", name)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("schedula.executor.rejected")
+                .tag("executor", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a command on lane 0.
+     */
+    @Override
+    public void execute(Runnable command) {
+        execute(command, 0);
+    }
+
+    /**
+     * Queues a command on the given lane; lanes past the last one use the last lane.
+     */
+    public void execute(Runnable command, int lane) {
+        execute(command, lane, 0, 1);
+    }
+
+    /**
+     * Queues a command on a weighted flow of the given lane.
+     *
+     * @param lane       the lane, lanes past the last one use the last lane
+     * @param flowId     the flow within the lane, e.g. the id of the user the command runs for
+     * @param flowWeight the share of the lane's slots the flow gets while other flows are queued
+     */
+    public void execute(Runnable command, int lane, int flowId, int flowWeight) {
+        execute(command, lane, flowId, flowWeight, e -> { });
+    }
+
+    /**
+     * Queues a command on a weighted flow of the given lane, with a handler for the delegate rejecting it later.
+     * A full queue still rejects the command by throwing from this method.
+     *
+     * @param onRejected called with the delegate's rejection if the command is rejected after it was queued
+     */
+    public void execute(Runnable command, int lane, int flowId, int flowWeight,
+                        Consumer<RejectedExecutionException> onRejected) {
+        if (queued.incrementAndGet() > queueCapacity) {
+            queued.decrementAndGet();
+            rejected.increment();
+
+            throw new RejectedExecutionException("Executor " + name + " queue is full (" + queueCapacity + ")");
+        }
+
+        synchronized (lanes) {
+            lanes[Math.min(lane, lanes.length - 1)].add(flowId, flowWeight, new QueuedCommand(command, onRejected));
+        }
+
+        drain();
+    }
+
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    public int getQueuedFlowCount() {
+        synchronized (lanes) {
+            int flows = 0;
+
+            for (DeficitRoundRobinQueue<QueuedCommand> laneQueue : lanes) {
+                flows += laneQueue.flowCount();
+            }
+
+            return flows;
+        }
+    }
+
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    /**
+     * Stops accepting work and waits briefly for running tasks to finish. Queued tasks are dropped.
+     */
+    public void shutdown() {
+        synchronized (lanes) {
+            for (DeficitRoundRobinQueue<QueuedCommand> laneQueue : lanes) {
+                laneQueue.clear();
+            }
+        }
+
+        queued.set(0);
+        delegate.shutdown();
+
+        try {
+            if (!delegate.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Executor {} stopped with {} task(s) still running", name, active.get());
+                delegate.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            delegate.shutdownNow();
+        }
+    }
+
+    // A finishing task releases its permit before re-checking the queue, and a submitter enqueues before trying
+    // for a permit, so a queued task is always picked up by one of the two
+    private void drain() {
+        while (hasQueued() && permits.tryAcquire()) {
+            QueuedCommand next = pollNext();
+
+            if (next == null) {
+                permits.release();
+                continue;
+            }
+
+            queued.decrementAndGet();
+            active.incrementAndGet();
+
+            try {
+                delegate.execute(() -> runAndRelease(next.command()));
+            } catch (RejectedExecutionException e) {
+                active.decrementAndGet();
+                permits.release();
+                rejected.increment();
+
+                log.error("❌ Executor {} rejected a fired task: {}", name, e.getMessage());
+                handleRejected(next, e);
+            }
+        }
+    }
+
+    private boolean hasQueued() {
+        synchronized (lanes) {
+            for (DeficitRoundRobinQueue<QueuedCommand> laneQueue : lanes) {
+                if (!laneQueue.isEmpty()) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+
+    // Each lane takes up to its weight in tasks per round; the round restarts once no lane with credits left has work
+    private QueuedCommand pollNext() {
+        synchronized (lanes) {
+            for (int round = 0; round < 2; round++) {
+                for (int lane = 0; lane < lanes.length; lane++) {
+                    if (laneCredits[lane] > 0) {
+                        QueuedCommand next = lanes[lane].poll();
+
+                        if (next != null) {
+                            laneCredits[lane]--;
+                            return next;
+                        }
+                    }
+                }
+
+                System.arraycopy(laneWeights, 0, laneCredits, 0, laneCredits.length);
+            }
+
+            return null;
+        }
+    }
+
+    private void runAndRelease(Runnable command) {
+        try {
+            command.run();
+        } catch (Exception e) {
+            log.error("❌ Fired task failed on executor {}: {}", name, e.getMessage(), e);
+        } finally {
+            active.decrementAndGet();
+            completed.increment();
+            permits.release();
+        }
+
+        drain();
+    }
+
+    private void handleRejected(QueuedCommand rejectedCommand, RejectedExecutionException e) {
+        try {
+            rejectedCommand.onRejected().accept(e);
+        } catch (Exception handlerFailure) {
+            log.error("❌ Handling a fired task rejected by executor {} failed: {}", name,
+                    handlerFailure.getMessage(), handlerFailure);
+        }
+    }
+
+    private record QueuedCommand(Runnable command, Consumer<RejectedExecutionException> onRejected) {
+    }
+}
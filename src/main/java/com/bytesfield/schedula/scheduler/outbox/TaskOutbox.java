@@ -0,0 +1,62 @@
+package com.bytesfield.schedula.scheduler.outbox;
+
+import com.bytesfield.schedula.models.entities.Task;
+import com.bytesfield.schedula.models.entities.TaskOutboxEvent;
+import com.bytesfield.schedula.models.enums.OutboxEventType;
+import com.bytesfield.schedula.repositories.TaskOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+
+/**
+ * TaskOutbox records task messages in the caller's transaction instead of publishing them, so a rolled back change
+ * never reaches the broker and the caller does not wait on it. The {@link TaskOutboxRelay} publishes them after the
+ * commit.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskOutbox {
+
+    private final TaskOutboxRepository outboxRepository;
+    private final TaskOutboxRelay relay;
+
+    public void enqueue(Task task, OutboxEventType type) {
+        TaskOutboxEvent event = new TaskOutboxEvent();
+        event.setTaskId(task.getId());
+        event.setType(type);
+
+        append(event);
+    }
+
+    /**
+     * Records the cancellation of the timers armed for versions of a task below minVersion, on every node.
+     */
+    public void enqueueCancel(int taskId, long minVersion) {
+        TaskOutboxEvent event = new TaskOutboxEvent();
+        event.setTaskId(taskId);
+        event.setType(OutboxEventType.CANCEL);
+        event.setMinVersion(minVersion);
+
+        append(event);
+    }
+
+    private void append(TaskOutboxEvent event) {
+        event.setCreatedAt(Instant.now());
+
+        outboxRepository.save(event);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    relay.wakeUp();
+                }
+            });
+        } else {
+            relay.wakeUp();
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.bytesfield.schedula.scheduler.outbox;
+
+import com.bytesfield.schedula.models.entities.Task;
+import com.bytesfield.schedula.models.entities.TaskOutboxEvent;
+import com.bytesfield.schedula.models.enums.OutboxEventType;
+import com.bytesfield.schedula.producers.ScheduleTaskProducer;
+import com.bytesfield.schedula.producers.ScheduleTaskProducer.Publication;
+import com.bytesfield.schedula.repositories.TaskOutboxRepository;
+import com.bytesfield.schedula.repositories.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * TaskOutboxRelay publishes the events written by {@link TaskOutbox}.
+ * <p>
+ * Each round claims the oldest unclaimed events for a lease in a short transaction, locking them with SKIP LOCKED so
+ * relays on several nodes claim disjoint batches. After the commit it publishes them in id order with publisher
+ * confirms, then deletes the confirmed rows with one statement and releases the unconfirmed ones for the next
+ * round. Rows of a relay that died while publishing are claimed again once their lease expires. The relay wakes up
+ * right after a commit that wrote events, and polls for events written on other nodes otherwise.
+ */
+@Slf4j
+@Component
+public class TaskOutboxRelay implements SmartLifecycle {
+
+    private final TaskOutboxRepository outboxRepository;
+    private final TaskRepository taskRepository;
+    private final ScheduleTaskProducer scheduleTaskProducer;
+    private final TransactionTemplate transactionTemplate;
+    private final Semaphore wakeUps = new Semaphore(0);
+    private final Timer lag;
+    private final Counter relayed;
+    private final Counter dropped;
+
+    @Value("${scheduler.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${scheduler.outbox.poll-interval-ms:1000}")
+    private long pollIntervalMillis;
+
+    @Value("${scheduler.outbox.claim-lease-ms:60000}")
+    private long claimLeaseMillis;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public TaskOutboxRelay(TaskOutboxRepository outboxRepository, TaskRepository taskRepository,
+                           ScheduleTaskProducer scheduleTaskProducer, PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.taskRepository = taskRepository;
+        this.scheduleTaskProducer = scheduleTaskProducer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lag = Timer.builder("schedula.outbox.lag")
+                .description("Time from writing an outbox event to its confirmed publish")
+                .register(meterRegistry);
+        this.relayed = Counter.builder("schedula.outbox.relayed").register(meterRegistry);
+        this.dropped = Counter.builder("schedula.outbox.dropped")
+                .description("Outbox events dropped because their task was deleted or has no next run")
+                .register(meterRegistry);
+    }
+
+    public void wakeUp() {
+        if (wakeUps.availablePermits() == 0) {
+            wakeUps.release();
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        worker = new Thread(this::run, "schedula-outbox-relay");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                wakeUps.tryAcquire(pollIntervalMillis, TimeUnit.MILLISECONDS);
+                wakeUps.drainPermits();
+
+                while (running && relayBatch()) {
+                    // Full batches mean there may be more events waiting
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("❌ Relaying outbox events failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * @return true if the batch was full and fully confirmed
+     */
+    private boolean relayBatch() {
+        List<TaskOutboxEvent> events = transactionTemplate.execute(status -> claimNextBatch());
+
+        if (events == null || events.isEmpty()) {
+            return false;
+        }
+
+        Map<Integer, Task> tasks = findTasks(events);
+        List<Outgoing> outgoing = new ArrayList<>(events.size());
+        List<Long> done = new ArrayList<>(events.size());
+
+        for (TaskOutboxEvent event : events) {
+            Publication publication = publicationOf(event, tasks.get(event.getTaskId()));
+
+            if (publication == null) {
+                done.add(event.getId());
+                continue;
+            }
+
+            outgoing.add(new Outgoing(event, publication));
+        }
+
+        int droppedCount = done.size();
+        Set<Long> confirmed = new HashSet<>();
+
+        for (Outgoing published : scheduleTaskProducer.sendConfirmed(outgoing, Outgoing::publication)) {
+            confirmed.add(published.event().getId());
+        }
+
+        List<Long> unconfirmed = new ArrayList<>();
+        Instant now = Instant.now();
+
+        for (Outgoing published : outgoing) {
+            TaskOutboxEvent event = published.event();
+
+            if (confirmed.contains(event.getId())) {
+                done.add(event.getId());
+                lag.record(Duration.between(event.getCreatedAt(), now));
+            } else {
+                unconfirmed.add(event.getId());
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!done.isEmpty()) {
+                outboxRepository.deleteAllByIdIn(done);
+            }
+
+            if (!unconfirmed.isEmpty()) {
+                outboxRepository.releaseAllByIdIn(unconfirmed);
+            }
+        });
+
+        relayed.increment(confirmed.size());
+        dropped.increment(droppedCount);
+
+        log.debug("Relayed {} of {} outbox event(s), {} dropped", confirmed.size(), events.size(), droppedCount);
+
+        return events.size() == batchSize && unconfirmed.isEmpty();
+    }
+
+    private List<TaskOutboxEvent> claimNextBatch() {
+        Instant now = Instant.now();
+        List<TaskOutboxEvent> events = outboxRepository.lockNextBatch(now, batchSize);
+
+        if (!events.isEmpty()) {
+            outboxRepository.claimAllByIdIn(events.stream().map(TaskOutboxEvent::getId).toList(),
+                    now.plusMillis(claimLeaseMillis));
+        }
+
+        return events;
+    }
+
+    private Map<Integer, Task> findTasks(List<TaskOutboxEvent> events) {
+        Set<Integer> taskIds = events.stream()
+                .filter(event -> event.getType() != OutboxEventType.CANCEL)
+                .map(TaskOutboxEvent::getTaskId)
+                .collect(Collectors.toSet());
+
+        if (taskIds.isEmpty()) {
+            return Map.of();
+        }
+
+        return taskRepository.findAllById(taskIds).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+    }
+
+    // Events of deleted tasks, or delays and offers of tasks that no longer have a next run, are dropped
+    private static Publication publicationOf(TaskOutboxEvent event, Task task) {
+        return switch (event.getType()) {
+            case SCHEDULE -> task == null ? null : ScheduleTaskProducer.scheduling(task);
+            case DELAY -> task == null || task.getNextRunAt() == null ? null : ScheduleTaskProducer.delaying(task);
+            case CANCEL -> ScheduleTaskProducer.cancellation(event.getTaskId(), event.getMinVersion());
+            case OFFER -> task == null || task.getNextRunAt() == null
+                    ? null
+                    : ScheduleTaskProducer.offering(task.getId(), task.getNextRunAt());
+        };
+    }
+
+    private record Outgoing(TaskOutboxEvent event, Publication publication) {
+    }
+}
@@ -0,0 +1,71 @@
+package com.bytesfield.schedula.scheduler.retry;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * RetryBackoffGate holds back every retry on this node while executions keep failing.
+ * <p>
+ * After failure-threshold consecutive failures the gate closes for a cooldown that doubles each time it trips again
+ * without a success in between, up to max-cooldown-seconds. While it is closed no retries are released; once it
+ * reopens only a small probe batch is released until an execution succeeds. A provider outage therefore pauses all
+ * retries together instead of each task retrying on its own schedule.
+ */
+@Slf4j
+@Component
+public class RetryBackoffGate {
+
+    @Value("${scheduler.retry.gate.failure-threshold:20}")
+    private int failureThreshold;
+
+    @Value("${scheduler.retry.gate.cooldown-seconds:10}")
+    private long cooldownSeconds;
+
+    @Value("${scheduler.retry.gate.max-cooldown-seconds:600}")
+    private long maxCooldownSeconds;
+
+    private int consecutiveFailures;
+    private int trips;
+    private long closedUntil;
+
+    public RetryBackoffGate(MeterRegistry meterRegistry) {
+        Gauge.builder("schedula.retry.gate.open", this, gate -> gate.isOpen() ? 1 : 0)
+                .description("Whether retries are currently released")
+                .register(meterRegistry);
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        trips = 0;
+    }
+
+    public synchronized void recordFailure() {
+        long now = System.currentTimeMillis();
+
+        if (++consecutiveFailures < failureThreshold || now < closedUntil) {
+            return;
+        }
+
+        trips++;
+        consecutiveFailures = 0;
+
+        long cooldownMillis = Math.min(maxCooldownSeconds, cooldownSeconds << Math.min(trips - 1, 20)) * 1000;
+        closedUntil = now + cooldownMillis;
+
+        log.warn("🚧 {} consecutive task failures, holding retries for {} s", failureThreshold, cooldownMillis / 1000);
+    }
+
+    public synchronized boolean isOpen() {
+        return System.currentTimeMillis() >= closedUntil;
+    }
+
+    /**
+     * How many retries to release at once: the full batch normally, a probe batch after the gate tripped.
+     */
+    public synchronized int releaseLimit(int batchSize) {
+        return trips == 0 ? batchSize : Math.max(1, batchSize / 10);
+    }
+}
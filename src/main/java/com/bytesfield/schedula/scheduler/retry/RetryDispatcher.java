@@ -0,0 +1,70 @@
+package com.bytesfield.schedula.scheduler.retry;
+
+import com.bytesfield.schedula.models.TaskVersionRef;
+import com.bytesfield.schedula.producers.TaskRetryProducer;
+import com.bytesfield.schedula.repositories.TaskRepository;
+import com.bytesfield.schedula.repositories.TaskRetryAttemptRepository;
+import com.bytesfield.schedula.scheduler.PartitionCoordinator;
+import com.bytesfield.schedula.scheduler.SchedulerNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * RetryDispatcher releases due retries of tasks in this node's partitions to the retry queue while the
+ * {@link RetryBackoffGate} is open, a bounded batch per poll.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RetryDispatcher {
+
+    private final TaskRepository taskRepository;
+    private final TaskRetryAttemptRepository retryAttemptRepository;
+    private final TaskRetryProducer taskRetryProducer;
+    private final RetryBackoffGate backoffGate;
+    private final PartitionCoordinator partitionCoordinator;
+    private final SchedulerNode schedulerNode;
+
+    @Value("${scheduler.retry.batch-size:100}")
+    private int batchSize;
+
+    @Value("${scheduler.retry.history-days:7}")
+    private long historyDays;
+
+    @Scheduled(fixedDelayString = "${scheduler.retry.poll-interval-ms:1000}")
+    public void releaseDueRetries() {
+        List<Integer> partitions = partitionCoordinator.getOwnedPartitions();
+
+        if (partitions.isEmpty() || !backoffGate.isOpen()) {
+            return;
+        }
+
+        try {
+            List<TaskVersionRef> dueRetries = taskRepository.findDueRetryRefs(Instant.now(),
+                    partitionCoordinator.getPartitionCount(), partitions, PageRequest.ofSize(backoffGate.releaseLimit(batchSize)));
+
+            for (TaskVersionRef ref : dueRetries) {
+                if (taskRepository.claimRetry(ref.getTaskId(), ref.getVersion(), schedulerNode.getNodeId()) == 1) {
+                    taskRetryProducer.sendRetry(ref.getTaskId(), ref.getVersion());
+                }
+            }
+        } catch (Exception e) {
+            log.error("❌ Releasing due retries failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(cron = "0 30 3 * * *")
+    public void purgeRetryHistory() {
+        int purged = retryAttemptRepository.deleteFailedBefore(Instant.now().minus(historyDays, ChronoUnit.DAYS));
+
+        log.debug("Purged {} retry attempt(s) older than {} day(s)", purged, historyDays);
+    }
+}
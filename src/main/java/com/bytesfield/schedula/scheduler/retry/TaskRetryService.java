@@ -0,0 +1,116 @@
+package com.bytesfield.schedula.scheduler.retry;
+
+import com.bytesfield.schedula.models.entities.Task;
+import com.bytesfield.schedula.models.entities.TaskRetryAttempt;
+import com.bytesfield.schedula.repositories.TaskRepository;
+import com.bytesfield.schedula.repositories.TaskRetryAttemptRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * TaskRetryService decides what happens to a failed execution.
+ * <p>
+ * Every failure is recorded in task_retry_attempts. A retry is parked in RETRYING status with an exponential
+ * backoff delay (base * 2^(attempt - 1), capped, with equal jitter) until the {@link RetryDispatcher} releases it.
+ * Retries stop after the task's max retries, or once the failed fire time is older than its max age.
+ */
+@Slf4j
+@Service
+public class TaskRetryService {
+
+    private final TaskRepository taskRepository;
+    private final TaskRetryAttemptRepository retryAttemptRepository;
+    private final RetryBackoffGate backoffGate;
+    private final Counter scheduled;
+    private final Counter exhausted;
+
+    @Value("${scheduler.retry.max-attempts:3}")
+    private int defaultMaxAttempts;
+
+    @Value("${scheduler.retry.base-delay-seconds:30}")
+    private int defaultBaseDelaySeconds;
+
+    @Value("${scheduler.retry.max-delay-seconds:3600}")
+    private long maxDelaySeconds;
+
+    @Value("${scheduler.retry.max-age-seconds:86400}")
+    private int defaultMaxAgeSeconds;
+
+    public TaskRetryService(TaskRepository taskRepository, TaskRetryAttemptRepository retryAttemptRepository,
+                            RetryBackoffGate backoffGate, MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.retryAttemptRepository = retryAttemptRepository;
+        this.backoffGate = backoffGate;
+        this.scheduled = Counter.builder("schedula.retry.scheduled").register(meterRegistry);
+        this.exhausted = Counter.builder("schedula.retry.exhausted").register(meterRegistry);
+    }
+
+    public void onSuccess() {
+        backoffGate.recordSuccess();
+    }
+
+    /**
+     * Records a failed execution and parks the task for a retry if its policy allows one.
+     *
+     * @return false if retries are exhausted and the caller should give up on this fire time
+     */
+    public boolean onFailure(Task task, String error) {
+        backoffGate.recordFailure();
+
+        Instant now = Instant.now();
+        TaskRetryAttempt previous = retryAttemptRepository.findFirstByTaskIdOrderByIdDesc(task.getId());
+
+        // A run started by a retry still has the retry time as its next run
+        boolean isRetry = previous != null && previous.getRetryAt() != null
+                && previous.getRetryAt().equals(task.getNextRunAt());
+
+        int attempt = isRetry ? previous.getAttempt() + 1 : 1;
+        Instant scheduledFor = isRetry ? previous.getScheduledFor()
+                : task.getNextRunAt() != null ? task.getNextRunAt() : now;
+
+        int maxAttempts = task.getMaxRetries() != null ? task.getMaxRetries() : defaultMaxAttempts;
+        int maxAgeSeconds = task.getRetryMaxAgeSeconds() != null ? task.getRetryMaxAgeSeconds() : defaultMaxAgeSeconds;
+
+        Instant retryAt = now.plus(backoff(task, attempt)).truncatedTo(ChronoUnit.MILLIS);
+        boolean exhaustedRetries = attempt > maxAttempts || retryAt.isAfter(scheduledFor.plusSeconds(maxAgeSeconds));
+
+        TaskRetryAttempt failure = new TaskRetryAttempt();
+        failure.setTaskId(task.getId());
+        failure.setAttempt((short) attempt);
+        failure.setScheduledFor(scheduledFor);
+        failure.setFailedAt(now);
+        failure.setRetryAt(exhaustedRetries ? null : retryAt);
+        failure.setError(error == null ? null : error.substring(0, Math.min(error.length(), 255)));
+        retryAttemptRepository.save(failure);
+
+        if (exhaustedRetries) {
+            exhausted.increment();
+            log.warn("🛑 Task ID={} failed {} time(s) for its run at {}, giving up", task.getId(), attempt, scheduledFor);
+
+            return false;
+        }
+
+        if (taskRepository.scheduleRetry(task.getId(), task.getVersion(), retryAt) == 1) {
+            scheduled.increment();
+            log.info("🔁 Task ID={} failed (attempt {}/{}), retrying at {}", task.getId(), attempt, maxAttempts, retryAt);
+        }
+
+        return true;
+    }
+
+    private Duration backoff(Task task, int attempt) {
+        long baseMillis = (task.getRetryBackoffSeconds() != null ? task.getRetryBackoffSeconds() : defaultBaseDelaySeconds) * 1000L;
+        long delayMillis = Math.min(maxDelaySeconds * 1000, baseMillis << Math.min(attempt - 1, 30));
+        long half = delayMillis / 2;
+
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+}
@@ -0,0 +1,422 @@
+package com.bytesfield.schedula.scheduler.timers;
+
+import com.bytesfield.schedula.scheduler.TaskTimer;
+import com.bytesfield.schedula.scheduler.TimerHandle;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.SchedulingException;
+
+import java.time.Instant;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * HierarchicalTimingWheel is a hashed hierarchical timing wheel.
+ * <p>
+ * Timeouts are hashed into one of {@code levels} wheels of {@code wheelSize} slots. Level 0 advances one slot per
+ * tick, and a slot on level {@code n} spans {@code wheelSize^n} ticks and is cascaded into the lower levels when its
+ * time comes. Scheduling and cancelling are O(1) and every slot is an intrusive linked list, so memory only grows
+ * with the number of pending timeouts.
+ * <p>
+ * All structural changes happen on the single worker thread: callers only enqueue additions and cancellations, and
+ * expired tasks are handed to the executor so a slow task never delays the tick. An expired task the executor rejects
+ * runs on the worker thread instead, which slows the wheel down rather than dropping the timeout.
+ */
+@Slf4j
+public class HierarchicalTimingWheel implements TaskTimer {
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private final long tickMillis;
+    private final int wheelBits;
+    private final int wheelMask;
+    private final int levels;
+    private final Slot[][] wheels;
+    private final Executor executor;
+
+    private final Queue<WheelTimeout> pendingAdds = new ConcurrentLinkedQueue<>();
+    private final Queue<WheelTimeout> pendingCancels = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    private Thread worker;
+    private volatile boolean running;
+    private volatile long startMillis;
+
+    // Only read and written by the worker thread
+    private long currentTick;
+
+    /**
+     * @param tickMillis the duration of one tick, which is also the timer precision
+     * @param wheelSize  the number of slots per level; must be a power of two
+     * @param levels     the number of levels; the wheel covers {@code tickMillis * wheelSize^levels} without cascading
+     * @param executor   the executor expired tasks run on; it is shut down with the wheel if it is an ExecutorService
+     */
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, int levels, Executor executor) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+
+        if (wheelSize < 2 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two greater than 1");
+        }
+
+        int bits = Integer.numberOfTrailingZeros(wheelSize);
+
+        if (levels < 1 || (long) bits * levels > 62) {
+            throw new IllegalArgumentException("Invalid number of wheel levels: " + levels);
+        }
+
+        this.tickMillis = tickMillis;
+        this.wheelBits = bits;
+        this.wheelMask = wheelSize - 1;
+        this.levels = levels;
+        this.executor = executor;
+        this.wheels = new Slot[levels][wheelSize];
+
+        for (Slot[] wheel : wheels) {
+            for (int i = 0; i < wheel.length; i++) {
+                wheel[i] = new Slot();
+            }
+        }
+
+        this.worker = newWorker();
+    }
+
+    /**
+     * Starts the worker thread. A wheel can be started again after {@link #stop()}; timeouts still pending then are
+     * placed again relative to the new start, but an executor that is an ExecutorService was shut down by the stop.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+
+        if (worker.getState() != Thread.State.NEW) {
+            requeuePlaced();
+            worker = newWorker();
+        }
+
+        currentTick = 0;
+        startMillis = System.currentTimeMillis();
+        running = true;
+        worker.start();
+
+        log.info("⏱️ Timing wheel started: tick={}ms, slots={}, levels={}", tickMillis, wheelMask + 1, levels);
+    }
+
+    public synchronized void stop() {
+        running = false;
+        worker.interrupt();
+
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+
+        log.info("⏱️ Timing wheel stopped with {} pending timeout(s)", pendingCount.get());
+    }
+
+    @Override
+    public TimerHandle schedule(Runnable task, Instant fireAt) {
+        if (!running) {
+            throw new SchedulingException("Timing wheel is not running");
+        }
+
+        WheelTimeout timeout = new WheelTimeout(task, fireAt.toEpochMilli());
+
+        pendingCount.incrementAndGet();
+        pendingAdds.add(timeout);
+
+        return timeout;
+    }
+
+    @Override
+    public int pendingCount() {
+        return pendingCount.get();
+    }
+
+    private Thread newWorker() {
+        Thread thread = new Thread(this::run, "schedula-timing-wheel");
+        thread.setDaemon(true);
+
+        return thread;
+    }
+
+    // Only called while the worker is stopped: slot positions depend on the start time, so placed timeouts go back
+    // through pendingAdds and get their deadline recomputed on the first tick
+    private void requeuePlaced() {
+        pendingCancels.clear();
+
+        for (Slot[] wheel : wheels) {
+            for (Slot slot : wheel) {
+                WheelTimeout timeout = slot.drain();
+
+                while (timeout != null) {
+                    WheelTimeout next = timeout.next;
+                    timeout.next = null;
+                    timeout.prev = null;
+
+                    if (timeout.state == PENDING) {
+                        pendingAdds.add(timeout);
+                    }
+
+                    timeout = next;
+                }
+            }
+        }
+    }
+
+    private void run() {
+        while (running) {
+            if (!awaitTick(startMillis + (currentTick + 1) * tickMillis)) {
+                break;
+            }
+
+            currentTick++;
+
+            transferPendingAdds();
+            processPendingCancels();
+            cascade();
+            expire(wheels[0][(int) (currentTick & wheelMask)]);
+        }
+    }
+
+    private boolean awaitTick(long deadlineMillis) {
+        long sleepMillis = deadlineMillis - System.currentTimeMillis();
+
+        while (sleepMillis > 0) {
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    return false;
+                }
+            }
+
+            sleepMillis = deadlineMillis - System.currentTimeMillis();
+        }
+
+        return running;
+    }
+
+    private void transferPendingAdds() {
+        WheelTimeout timeout;
+
+        while ((timeout = pendingAdds.poll()) != null) {
+            if (timeout.state != PENDING) {
+                continue;
+            }
+
+            long ticks = Math.ceilDiv(timeout.fireAtMillis - startMillis, tickMillis);
+            timeout.deadlineTick = Math.max(currentTick, ticks);
+
+            place(timeout);
+        }
+    }
+
+    private void processPendingCancels() {
+        WheelTimeout timeout;
+
+        while ((timeout = pendingCancels.poll()) != null) {
+            if (timeout.slot != null) {
+                timeout.slot.remove(timeout);
+            }
+        }
+    }
+
+    private void place(WheelTimeout timeout) {
+        long delta = timeout.deadlineTick - currentTick;
+        int level = 0;
+
+        // Timeouts beyond the top level's range stay on the top level and are re-placed each time it cascades
+        while (level < levels - 1 && delta >= 1L << (wheelBits * (level + 1))) {
+            level++;
+        }
+
+        int index = (int) ((timeout.deadlineTick >>> (wheelBits * level)) & wheelMask);
+
+        wheels[level][index].add(timeout);
+    }
+
+    private void cascade() {
+        int topLevel = 0;
+
+        for (int level = 1; level < levels; level++) {
+            if ((currentTick & ((1L << (wheelBits * level)) - 1)) != 0) {
+                break;
+            }
+
+            topLevel = level;
+        }
+
+        // Higher levels first so that timeouts they move down are cascaded again on this tick if needed
+        for (int level = topLevel; level >= 1; level--) {
+            Slot slot = wheels[level][(int) ((currentTick >>> (wheelBits * level)) & wheelMask)];
+            WheelTimeout timeout = slot.drain();
+
+            while (timeout != null) {
+                WheelTimeout next = timeout.next;
+                timeout.next = null;
+                timeout.prev = null;
+
+                if (timeout.state == PENDING) {
+                    place(timeout);
+                }
+
+                timeout = next;
+            }
+        }
+    }
+
+    private void expire(Slot slot) {
+        WheelTimeout timeout = slot.drain();
+
+        while (timeout != null) {
+            WheelTimeout next = timeout.next;
+            timeout.next = null;
+            timeout.prev = null;
+
+            if (timeout.deadlineTick > currentTick) {
+                place(timeout);
+            } else if (timeout.expire()) {
+                pendingCount.decrementAndGet();
+                dispatch(timeout);
+            }
+
+            timeout = next;
+        }
+    }
+
+    private void dispatch(WheelTimeout timeout) {
+        Runnable task = timeout.task;
+        timeout.task = null;
+
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.warn("⚠️ Expired timeout rejected by executor, running it on the wheel thread: {}", e.getMessage());
+            runRejected(task);
+        }
+    }
+
+    private void runRejected(Runnable task) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            log.error("❌ Expired timeout failed on the wheel thread: {}", e.getMessage(), e);
+        }
+    }
+
+    private static final class Slot {
+        private WheelTimeout head;
+        private WheelTimeout tail;
+
+        void add(WheelTimeout timeout) {
+            timeout.slot = this;
+
+            if (tail == null) {
+                head = timeout;
+                tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void remove(WheelTimeout timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.slot = null;
+            timeout.task = null;
+        }
+
+        WheelTimeout drain() {
+            WheelTimeout first = head;
+
+            for (WheelTimeout timeout = first; timeout != null; timeout = timeout.next) {
+                timeout.slot = null;
+            }
+
+            head = null;
+            tail = null;
+
+            return first;
+        }
+    }
+
+    private final class WheelTimeout implements TimerHandle {
+        private static final AtomicIntegerFieldUpdater<WheelTimeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(WheelTimeout.class, "state");
+
+        private final long fireAtMillis;
+        private volatile int state = PENDING;
+        private volatile Runnable task;
+
+        // Only read and written by the worker thread
+        private long deadlineTick;
+        private Slot slot;
+        private WheelTimeout prev;
+        private WheelTimeout next;
+
+        WheelTimeout(Runnable task, long fireAtMillis) {
+            this.task = task;
+            this.fireAtMillis = fireAtMillis;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, PENDING, CANCELLED)) {
+                return false;
+            }
+
+            pendingCount.decrementAndGet();
+            pendingCancels.add(this);
+
+            return true;
+        }
+
+        boolean expire() {
+            return STATE.compareAndSet(this, PENDING, EXPIRED);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+
+        @Override
+        public Instant getFireAt() {
+            return Instant.ofEpochMilli(fireAtMillis);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.bytesfield.schedula.scheduler.timers;
+
+import com.bytesfield.schedula.scheduler.TaskTimer;
+import com.bytesfield.schedula.scheduler.TimerHandle;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TaskSchedulerTimer schedules every timeout as its own future on Spring's {@link TaskScheduler}.
+ * It is kept as an alternative engine to the timing wheel and as a baseline to compare it against.
+ * The scheduler thread only detects expiry; the task itself runs on the given executor, or on the scheduler thread
+ * if the executor rejects it.
+ */
+@Slf4j
+public class TaskSchedulerTimer implements TaskTimer {
+
+    private final TaskScheduler taskScheduler;
+    private final Executor executor;
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    public TaskSchedulerTimer(TaskScheduler taskScheduler, Executor executor) {
+        this.taskScheduler = taskScheduler;
+        this.executor = executor;
+    }
+
+    @Override
+    public TimerHandle schedule(Runnable task, Instant fireAt) {
+        FutureTimerHandle handle = new FutureTimerHandle(fireAt);
+
+        pendingCount.incrementAndGet();
+
+        handle.future = taskScheduler.schedule(() -> {
+            if (handle.done.compareAndSet(false, true)) {
+                pendingCount.decrementAndGet();
+
+                try {
+                    executor.execute(task);
+                } catch (RejectedExecutionException e) {
+                    log.warn("⚠️ Expired timeout rejected by executor, running it on the scheduler thread: {}",
+                            e.getMessage());
+                    task.run();
+                }
+            }
+        }, fireAt);
+
+        return handle;
+    }
+
+    @Override
+    public int pendingCount() {
+        return pendingCount.get();
+    }
+
+    private final class FutureTimerHandle implements TimerHandle {
+        private final Instant fireAt;
+        private final AtomicBoolean done = new AtomicBoolean();
+        private volatile boolean cancelled;
+        private volatile ScheduledFuture<?> future;
+
+        FutureTimerHandle(Instant fireAt) {
+            this.fireAt = fireAt;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!done.compareAndSet(false, true)) {
+                return false;
+            }
+
+            cancelled = true;
+            pendingCount.decrementAndGet();
+
+            ScheduledFuture<?> scheduledFuture = future;
+
+            if (scheduledFuture != null) {
+                scheduledFuture.cancel(false);
+            }
+
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return done.get() && !cancelled;
+        }
+
+        @Override
+        public Instant getFireAt() {
+            return fireAt;
+        }
+    }
+}
@@ -9,9 +9,15 @@ import com.bytesfield.schedula.exceptions.ResourceNotFoundException;
 import com.bytesfield.schedula.exceptions.UserNotFoundException;
 import com.bytesfield.schedula.models.entities.Task;
 import com.bytesfield.schedula.models.entities.User;
+import com.bytesfield.schedula.models.enums.OutboxEventType;
+import com.bytesfield.schedula.models.enums.TaskStatus;
 import com.bytesfield.schedula.models.enums.TaskType;
-import com.bytesfield.schedula.producers.ScheduleTaskProducer;
 import com.bytesfield.schedula.repositories.TaskRepository;
+import com.bytesfield.schedula.scheduler.BrokerDelayedDelivery;
+import com.bytesfield.schedula.scheduler.DueTaskIndex;
+import com.bytesfield.schedula.scheduler.DueTaskNotifier;
+import com.bytesfield.schedula.scheduler.TimerRegistry;
+import com.bytesfield.schedula.scheduler.outbox.TaskOutbox;
 import com.bytesfield.schedula.utils.TaskHelper;
 import com.bytesfield.schedula.utils.mappers.TaskMapper;
 import jakarta.transaction.Transactional;
@@ -19,6 +25,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.server.ServerErrorException;
 
 import java.time.Instant;
@@ -32,7 +40,11 @@ public class TaskService {
     private final TaskRepository taskRepository;
     private final TaskMapper taskMapper;
     private final UserService userService;
-    private final ScheduleTaskProducer scheduleTaskProducer;
+    private final DueTaskIndex dueTaskIndex;
+    private final DueTaskNotifier dueTaskNotifier;
+    private final TimerRegistry timerRegistry;
+    private final BrokerDelayedDelivery brokerDelayedDelivery;
+    private final TaskOutbox taskOutbox;
 
     @Transactional
     public TaskResponse createTask(UserDetails userDetails, TaskRequest request) {
@@ -46,7 +58,12 @@ public class TaskService {
 
             TaskResponse response = taskMapper.toResponse(savedTask);
 
-            scheduleTaskProducer.sendTask(response); //Publish a task to RabbitMQ
+            // Future timestamp tasks wait in the broker delay queues in broker delivery mode
+            if (!brokerDelayedDelivery.delay(savedTask)) {
+                taskOutbox.enqueue(savedTask, OutboxEventType.SCHEDULE); //Published to RabbitMQ by the outbox relay after the commit
+            }
+
+            dueTaskNotifier.offerAfterCommit(savedTask);
 
             return response;
         } catch (Exception e) {
@@ -117,12 +134,16 @@ public class TaskService {
         return task;
     }
 
+    @Transactional
     public void deleteTask(UserDetails userDetail, int id) {
         try {
             Task task = getUserTaskById(userDetail, id);
 
             taskRepository.delete(task);
 
+            dueTaskIndex.remove(id);
+            cancelTimers(id, task.getVersion() + 1);
+
         } catch (Exception e) {
             log.error("Error while deleting task: {}", e.getMessage(), e);
 
@@ -134,13 +155,18 @@ public class TaskService {
         }
     }
 
+    @Transactional
     public TaskResponse updateTask(UserDetails userDetail, int id, UpdateTaskRequest request) {
         try {
             Task task = getUserTaskById(userDetail, id);
 
             taskMapper.updateEntity(request, task);
 
-            Task updatedTask = taskRepository.save(task);
+            // Flushed so the cancellation below carries the new version
+            Task updatedTask = taskRepository.saveAndFlush(task);
+
+            cancelTimers(updatedTask.getId(), updatedTask.getVersion());
+            dueTaskNotifier.offerAfterCommit(updatedTask);
 
             return taskMapper.toResponse(updatedTask);
         } catch (Exception e) {
@@ -154,6 +180,87 @@ public class TaskService {
         }
     }
 
+    @Transactional
+    public TaskResponse pauseTask(UserDetails userDetail, int id) {
+        try {
+            Task task = getUserTaskById(userDetail, id);
+
+            if (task.getStatus() == TaskStatus.PAUSED) {
+                return taskMapper.toResponse(task);
+            }
+
+            if (task.isCompleted() || task.getStatus() == TaskStatus.COMPLETED || task.getStatus() == TaskStatus.FAILED) {
+                throw new ConflictException("Only active tasks can be paused");
+            }
+
+            task.setStatus(TaskStatus.PAUSED);
+            task.setClaimedBy(null);
+            task.setLeaseExpiresAt(null);
+
+            Task pausedTask = taskRepository.saveAndFlush(task);
+
+            dueTaskIndex.remove(id);
+            cancelTimers(id, pausedTask.getVersion());
+
+            return taskMapper.toResponse(pausedTask);
+        } catch (Exception e) {
+            log.error("Error while pausing task: {}", e.getMessage(), e);
+
+            if (e instanceof ResourceNotFoundException || e instanceof ConflictException) {
+                throw e;
+            }
+
+            throw new ServerErrorException("Something went wrong. You can reach out to us", e);
+        }
+    }
+
+    @Transactional
+    public TaskResponse resumeTask(UserDetails userDetail, int id) {
+        try {
+            Task task = getUserTaskById(userDetail, id);
+
+            if (task.getStatus() != TaskStatus.PAUSED) {
+                throw new ConflictException("Task is not paused");
+            }
+
+            // Cron tasks continue from their next fire time instead of replaying the paused period
+            if (TaskHelper.isCronTask(task.getType())) {
+                task.setNextRunAt(TaskHelper.nextCronRunAt(task.getCronExpression(), Instant.now()));
+            }
+
+            task.setStatus(TaskStatus.PENDING);
+
+            Task resumedTask = taskRepository.save(task);
+
+            dueTaskNotifier.offerAfterCommit(resumedTask);
+
+            return taskMapper.toResponse(resumedTask);
+        } catch (Exception e) {
+            log.error("Error while resuming task: {}", e.getMessage(), e);
+
+            if (e instanceof ResourceNotFoundException || e instanceof ConflictException) {
+                throw e;
+            }
+
+            throw new ServerErrorException("Something went wrong. You can reach out to us", e);
+        }
+    }
+
+    /**
+     * Cancels timers armed for older versions of a task once the change is committed: here right away, and on every
+     * other node through a broadcast written to the outbox in the same transaction.
+     */
+    private void cancelTimers(int taskId, long minVersion) {
+        taskOutbox.enqueueCancel(taskId, minVersion);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                timerRegistry.cancelStale(taskId, minVersion);
+            }
+        });
+    }
+
     public List<TaskResponse> getUserTasks(UserDetails userDetail) {
         try {
             User user = this.getUserByEmail(userDetail.getUsername());
@@ -1,9 +1,13 @@
 package com.bytesfield.schedula.services.utils;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -13,6 +17,9 @@ import java.util.concurrent.TimeUnit;
 @Component
 @RequiredArgsConstructor
 public class CacheService {
+    private static final RedisScript<Long> DELETE_IF_EQUALS = RedisScript.of(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+
     private final RedisTemplate<String, String> redisTemplate;
     
     /**
@@ -66,6 +73,60 @@ public class CacheService {
         redisTemplate.opsForValue().set(key, value, timeout, unit);
     }
 
+    /**
+     * Stores a value with an expiration time only if the key does not exist yet.
+     *
+     * @param key     the key under which the value will be stored
+     * @param value   the value to store in the cache
+     * @param timeout the expiration time for the key
+     * @param unit    the time unit of the expiration time
+     * @return true if the value was stored, false if the key already existed
+     */
+    public boolean setValueIfAbsent(String key, String value, long timeout, TimeUnit unit) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, value, timeout, unit));
+    }
+
+    /**
+     * Stores a value with an expiration time under each of the keys that does not exist yet, in one pipelined round
+     * trip.
+     *
+     * @param keys    the keys under which the value will be stored
+     * @param value   the value to store in the cache
+     * @param timeout the expiration time for the keys
+     * @param unit    the time unit of the expiration time
+     * @return for each key, in order, true if the value was stored
+     */
+    public List<Boolean> setValuesIfAbsent(List<String> keys, String value, long timeout, TimeUnit unit) {
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> stringOperations = (RedisOperations<String, String>) operations;
+
+                for (String key : keys) {
+                    stringOperations.opsForValue().setIfAbsent(key, value, timeout, unit);
+                }
+
+                return null;
+            }
+        });
+
+        return results.stream().map(Boolean.TRUE::equals).toList();
+    }
+
+    /**
+     * Deletes a key only if it still holds the given value, atomically.
+     *
+     * @param key   the key to delete
+     * @param value the value the key must hold
+     * @return true if the key was deleted
+     */
+    public boolean deleteValueIfEquals(String key, String value) {
+        Long deleted = redisTemplate.execute(DELETE_IF_EQUALS, List.of(key), value);
+
+        return deleted != null && deleted > 0;
+    }
+
     /**
      * Retrieves the expiration time of a key in the cache.
      *
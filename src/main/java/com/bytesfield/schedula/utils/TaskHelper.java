@@ -1,7 +1,9 @@
 package com.bytesfield.schedula.utils;
 
 import com.bytesfield.schedula.models.enums.TaskType;
-import org.quartz.CronExpression;
+import com.bytesfield.schedula.scheduler.cron.CompiledCron;
+
+import java.time.Instant;
 
 public class TaskHelper {
     private TaskHelper() {
@@ -12,7 +14,20 @@ public class TaskHelper {
     }
 
     public static boolean isValidCron(String expression) {
-        return CronExpression.isValidExpression(expression);
+        return CompiledCron.isValid(expression);
+    }
+
+    /**
+     * Computes the first fire time of a cron expression strictly after the given instant.
+     *
+     * @param expression the cron expression
+     * @param after      the instant to start searching from
+     * @return the next fire time, or null if the expression never fires again
+     */
+    public static Instant nextCronRunAt(String expression, Instant after) {
+        long next = CompiledCron.compile(expression).nextFireAfter(after.toEpochMilli());
+
+        return next != CompiledCron.NO_FIRE ? Instant.ofEpochMilli(next) : null;
     }
 
     public static Boolean isTimestampTask(TaskType type) {
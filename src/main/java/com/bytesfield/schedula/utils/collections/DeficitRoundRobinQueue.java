@@ -0,0 +1,103 @@
+package com.bytesfield.schedula.utils.collections;
+
+import java.util.ArrayDeque;
+
+/**
+ * DeficitRoundRobinQueue is a queue split into per-flow sub-queues that are served by deficit round-robin.
+ * <p>
+ * Every flow with queued items takes turns: on its turn a flow is credited its weight and may dequeue one item per
+ * credit before moving to the back of the round. A flow with a large backlog therefore gets its weighted share and
+ * never delays another flow by more than one round. Empty flows are dropped, so memory is bounded by the queued
+ * items. Items all cost one credit. Not thread-safe; callers synchronize externally.
+ *
+ * @param <T> the item type
+ */
+public class DeficitRoundRobinQueue<T> {
+
+    private final IntObjectHashMap<Flow<T>> flows = new IntObjectHashMap<>();
+    private final ArrayDeque<Flow<T>> round = new ArrayDeque<>();
+    private int size;
+
+    /**
+     * Queues an item on a flow. The weight of a flow is taken from the item that created it.
+     *
+     * @param flowId the flow, e.g. the id of the user the item belongs to
+     * @param weight the credits the flow gets per turn, at least 1
+     * @param item   the item
+     */
+    public void add(int flowId, int weight, T item) {
+        Flow<T> flow = flows.get(flowId);
+
+        if (flow == null) {
+            flow = new Flow<>(flowId, Math.max(1, weight));
+            flows.put(flowId, flow);
+            round.addLast(flow);
+        }
+
+        flow.items.addLast(item);
+        size++;
+    }
+
+    /**
+     * Removes the next item in round-robin order.
+     *
+     * @return the item, or null if the queue is empty
+     */
+    public T poll() {
+        Flow<T> flow = round.peekFirst();
+
+        if (flow == null) {
+            return null;
+        }
+
+        if (flow.deficit == 0) {
+            flow.deficit = flow.weight;
+        }
+
+        T item = flow.items.pollFirst();
+        flow.deficit--;
+        size--;
+
+        if (flow.items.isEmpty()) {
+            round.pollFirst();
+            flows.remove(flow.id);
+        } else if (flow.deficit == 0) {
+            round.addLast(round.pollFirst());
+        }
+
+        return item;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Number of flows with queued items.
+     */
+    public int flowCount() {
+        return flows.size();
+    }
+
+    public void clear() {
+        flows.clear();
+        round.clear();
+        size = 0;
+    }
+
+    private static final class Flow<T> {
+        private final int id;
+        private final int weight;
+        private final ArrayDeque<T> items = new ArrayDeque<>();
+        private int deficit;
+
+        private Flow(int id, int weight) {
+            this.id = id;
+            this.weight = weight;
+        }
+    }
+}
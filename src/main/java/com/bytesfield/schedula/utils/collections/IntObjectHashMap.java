@@ -0,0 +1,190 @@
+package com.bytesfield.schedula.utils.collections;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * IntObjectHashMap is an open-addressing hash map keyed by primitive ints.
+ * <p>
+ * Keys live in an int[] next to their values, so lookups neither box the key nor allocate an entry per mapping.
+ * Collisions are resolved by linear probing and removals shift later entries back, so no tombstones build up.
+ * Not thread-safe; callers synchronize externally. Null values are not allowed.
+ *
+ * @param <V> the value type
+ */
+public class IntObjectHashMap<V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private int[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+    private int resizeThreshold;
+
+    public IntObjectHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntObjectHashMap(int expectedSize) {
+        allocate(tableSizeFor(Math.max(DEFAULT_CAPACITY, (int) (expectedSize / LOAD_FACTOR) + 1)));
+    }
+
+    public V get(int key) {
+        int index = indexOf(key);
+
+        return index < 0 ? null : value(index);
+    }
+
+    /**
+     * @return the previous value for the key, or null if there was none
+     */
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+
+        int index = slot(key);
+
+        while (values[index] != null) {
+            if (keys[index] == key) {
+                V previous = value(index);
+                values[index] = value;
+                return previous;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+
+        if (++size > resizeThreshold) {
+            resize();
+        }
+
+        return null;
+    }
+
+    /**
+     * @return the removed value, or null if the key was not mapped
+     */
+    public V remove(int key) {
+        int index = indexOf(key);
+
+        if (index < 0) {
+            return null;
+        }
+
+        V previous = value(index);
+
+        removeAt(index);
+
+        return previous;
+    }
+
+    public boolean containsKey(int key) {
+        return indexOf(key) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    public void forEach(BiConsumer<Integer, ? super V> action) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                action.accept(keys[i], value(i));
+            }
+        }
+    }
+
+    private int indexOf(int key) {
+        int index = slot(key);
+
+        while (values[index] != null) {
+            if (keys[index] == key) {
+                return index;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    // Backward-shift deletion: move later entries of the probe run into the gap so lookups never stop early
+    private void removeAt(int index) {
+        int gap = index;
+        int next = (gap + 1) & mask;
+
+        while (values[next] != null) {
+            int home = slot(keys[next]);
+
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+
+            next = (next + 1) & mask;
+        }
+
+        values[gap] = null;
+        size--;
+    }
+
+    private int slot(int key) {
+        int hash = key * 0x9E3779B9;
+
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V value(int index) {
+        return (V) values[index];
+    }
+
+    private void resize() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+
+        allocate(values.length << 1);
+        size = 0;
+
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int index = slot(oldKeys[i]);
+
+                while (values[index] != null) {
+                    index = (index + 1) & mask;
+                }
+
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+                size++;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int capacity) {
+        return Integer.highestOneBit(capacity - 1) << 1;
+    }
+}
@@ -0,0 +1,129 @@
+package com.bytesfield.schedula.utils.collections;
+
+import java.util.Arrays;
+
+/**
+ * LongHashSet is an open-addressing hash set of primitive longs.
+ * <p>
+ * Keys live in a single long[], so adding neither boxes the key nor allocates a node per element. Collisions are
+ * resolved by linear probing; 0 marks an empty slot and is tracked separately. There is no removal, only
+ * {@link #clear()}, which keeps the table for reuse. Not thread-safe; callers synchronize externally.
+ */
+public class LongHashSet {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private long[] keys;
+    private boolean containsZero;
+    private int size;
+    private int mask;
+    private int resizeThreshold;
+
+    public LongHashSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongHashSet(int expectedSize) {
+        allocate(tableSizeFor(Math.max(DEFAULT_CAPACITY, (int) (expectedSize / LOAD_FACTOR) + 1)));
+    }
+
+    /**
+     * @return true if the key was not in the set yet
+     */
+    public boolean add(long key) {
+        if (key == 0) {
+            if (containsZero) {
+                return false;
+            }
+
+            containsZero = true;
+            size++;
+            return true;
+        }
+
+        int index = slot(key);
+
+        while (keys[index] != 0) {
+            if (keys[index] == key) {
+                return false;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+
+        if (++size > resizeThreshold) {
+            resize();
+        }
+
+        return true;
+    }
+
+    public boolean contains(long key) {
+        if (key == 0) {
+            return containsZero;
+        }
+
+        int index = slot(key);
+
+        while (keys[index] != 0) {
+            if (keys[index] == key) {
+                return true;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        containsZero = false;
+        size = 0;
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+
+        allocate(keys.length << 1);
+
+        for (long key : oldKeys) {
+            if (key != 0) {
+                int index = slot(key);
+
+                while (keys[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+
+                keys[index] = key;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int capacity) {
+        return Integer.highestOneBit(capacity - 1) << 1;
+    }
+}
@@ -6,7 +6,9 @@ import com.bytesfield.schedula.dtos.requests.UpdateTaskRequest;
 import com.bytesfield.schedula.models.entities.Task;
 import com.bytesfield.schedula.models.entities.User;
 import com.bytesfield.schedula.models.enums.ScheduleType;
+import com.bytesfield.schedula.models.enums.TaskPriority;
 import com.bytesfield.schedula.models.enums.TaskStatus;
+import com.bytesfield.schedula.utils.TaskHelper;
 import org.mapstruct.Mapper;
 
 import java.time.Instant;
@@ -23,8 +25,16 @@ public interface TaskMapper {
         task.setRetryCount(1);
         task.setScheduleType(ScheduleType.valueOf(String.valueOf(request.getScheduleType())));
         task.setCronExpression(request.getCronExpression());
-        task.setNextRunAt(request.getTriggerTime());
+        task.setNextRunAt(resolveNextRunAt(task, request.getTriggerTime()));
         task.setData(request.getPayload());
+        task.setSpreadWindowSeconds(request.getSpreadWindowSeconds());
+        task.setPriority(request.getPriority() != null ? request.getPriority() : TaskPriority.NORMAL);
+        task.setMisfirePolicy(request.getMisfirePolicy());
+        task.setConcurrencyPolicy(request.getConcurrencyPolicy());
+        task.setMaxRetries(request.getMaxRetries());
+        task.setRetryBackoffSeconds(request.getRetryBackoffSeconds());
+        task.setRetryMaxAgeSeconds(request.getRetryMaxAgeSeconds());
+        task.setExecutionTimeoutSeconds(request.getExecutionTimeoutSeconds());
         task.setStatus(TaskStatus.PENDING);
         task.setCreatedAt(Instant.now());
 
@@ -36,13 +46,58 @@ public interface TaskMapper {
         task.setType(request.getType());
         task.setScheduleType(ScheduleType.valueOf(String.valueOf(request.getScheduleType())));
         task.setCronExpression(request.getCronExpression());
-        task.setNextRunAt(request.getTriggerTime());
+        task.setNextRunAt(resolveNextRunAt(task, request.getTriggerTime()));
         task.setData(request.getPayload());
+
+        // Scheduling options left out of the request keep their current value
+        if (request.getSpreadWindowSeconds() != null) {
+            task.setSpreadWindowSeconds(request.getSpreadWindowSeconds());
+        }
+
+        if (request.getPriority() != null) {
+            task.setPriority(request.getPriority());
+        }
+
+        if (request.getMisfirePolicy() != null) {
+            task.setMisfirePolicy(request.getMisfirePolicy());
+        }
+
+        if (request.getConcurrencyPolicy() != null) {
+            task.setConcurrencyPolicy(request.getConcurrencyPolicy());
+        }
+
+        if (request.getMaxRetries() != null) {
+            task.setMaxRetries(request.getMaxRetries());
+        }
+
+        if (request.getRetryBackoffSeconds() != null) {
+            task.setRetryBackoffSeconds(request.getRetryBackoffSeconds());
+        }
+
+        if (request.getRetryMaxAgeSeconds() != null) {
+            task.setRetryMaxAgeSeconds(request.getRetryMaxAgeSeconds());
+        }
+
+        if (request.getExecutionTimeoutSeconds() != null) {
+            task.setExecutionTimeoutSeconds(request.getExecutionTimeoutSeconds());
+        }
+
         task.setStatus(TaskStatus.PENDING);
         task.setUpdatedAt(Instant.now());
 
     }
 
+    /**
+     * Cron tasks fire at the next time matching their expression; timestamp tasks fire at their trigger time.
+     */
+    default Instant resolveNextRunAt(Task task, Instant triggerTime) {
+        if (TaskHelper.isCronTask(task.getType()) && task.getCronExpression() != null) {
+            return TaskHelper.nextCronRunAt(task.getCronExpression(), Instant.now());
+        }
+
+        return triggerTime;
+    }
+
     default List<TaskResponse> toResponseList(List<Task> tasks) {
         return tasks.stream()
                 .map(this::toResponse)
@@ -59,6 +114,9 @@ public interface TaskMapper {
         taskResponse.setTriggerTime(savedTask.getNextRunAt());
         taskResponse.setPayload(savedTask.getData());
         taskResponse.setStatus(savedTask.getStatus());
+        taskResponse.setPriority(savedTask.getPriority());
+        taskResponse.setMisfirePolicy(savedTask.getMisfirePolicy());
+        taskResponse.setConcurrencyPolicy(savedTask.getConcurrencyPolicy());
         taskResponse.setRetryCount(savedTask.getRetryCount());
         taskResponse.setCreatedAt(savedTask.getCreatedAt());
 
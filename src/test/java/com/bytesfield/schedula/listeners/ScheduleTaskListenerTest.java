@@ -0,0 +1,134 @@
+package com.bytesfield.schedula.listeners;
+
+import com.bytesfield.schedula.dtos.TaskRefMessage;
+import com.bytesfield.schedula.models.entities.Task;
+import com.bytesfield.schedula.models.enums.TaskStatus;
+import com.bytesfield.schedula.models.enums.TaskType;
+import com.bytesfield.schedula.producers.ScheduleTaskProducer;
+import com.bytesfield.schedula.repositories.NotificationRepository;
+import com.bytesfield.schedula.repositories.TaskRepository;
+import com.bytesfield.schedula.scheduler.BrokerDelayedDelivery;
+import com.bytesfield.schedula.scheduler.CronTriggerGroups;
+import com.bytesfield.schedula.scheduler.DueTaskNotifier;
+import com.bytesfield.schedula.scheduler.ExecutionGuard;
+import com.bytesfield.schedula.scheduler.ExecutionWatchdog;
+import com.bytesfield.schedula.scheduler.FireReleasePacer;
+import com.bytesfield.schedula.scheduler.FireSpreader;
+import com.bytesfield.schedula.scheduler.MisfireCatchUp;
+import com.bytesfield.schedula.scheduler.SchedulerNode;
+import com.bytesfield.schedula.scheduler.TaskMessageDeduplicator;
+import com.bytesfield.schedula.scheduler.TaskTimer;
+import com.bytesfield.schedula.scheduler.TenantWeights;
+import com.bytesfield.schedula.scheduler.TimerRegistry;
+import com.bytesfield.schedula.scheduler.executors.BoundedTaskExecutor;
+import com.bytesfield.schedula.scheduler.retry.TaskRetryService;
+import com.bytesfield.schedula.services.NotificationService;
+import com.bytesfield.schedula.services.utils.CacheService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ScheduleTaskListenerTest {
+
+    private static final int TASK_ID = 7;
+
+    private final TaskTimer taskTimer = mock(TaskTimer.class);
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final FireSpreader fireSpreader = mock(FireSpreader.class);
+    private final BrokerDelayedDelivery brokerDelayedDelivery = mock(BrokerDelayedDelivery.class);
+    private final CacheService cacheService = mock(CacheService.class);
+    private final SchedulerNode schedulerNode = new SchedulerNode("node-1");
+
+    private final Instant nextRunAt = Instant.now().plusSeconds(3600);
+    private final Task task = new Task();
+    private ScheduleTaskListener listener;
+
+    @BeforeEach
+    void setUp() {
+        task.setId(TASK_ID);
+        task.setVersion(2);
+        task.setType(TaskType.TIMESTAMP);
+        task.setStatus(TaskStatus.PENDING);
+        task.setNextRunAt(nextRunAt);
+
+        when(cacheService.setValuesIfAbsent(anyList(), anyString(), anyLong(), any()))
+                .thenAnswer(invocation -> Collections.nCopies(invocation.<List<?>>getArgument(0).size(), true));
+        when(taskRepository.findAllWithUserByIdIn(any())).thenReturn(List.of(task));
+        when(fireSpreader.spread(task, nextRunAt)).thenReturn(nextRunAt);
+
+        listener = new ScheduleTaskListener(taskTimer, mock(NotificationRepository.class),
+                mock(NotificationService.class), taskRepository, mock(DueTaskNotifier.class), schedulerNode,
+                mock(TimerRegistry.class), mock(BoundedTaskExecutor.class), fireSpreader,
+                mock(FireReleasePacer.class), mock(CronTriggerGroups.class), brokerDelayedDelivery,
+                mock(TaskRetryService.class), mock(TenantWeights.class), mock(MisfireCatchUp.class),
+                mock(ExecutionGuard.class), mock(ExecutionWatchdog.class),
+                new TaskMessageDeduplicator(cacheService, schedulerNode, 600, 10, 1_000, new SimpleMeterRegistry()),
+                200, 1_000);
+    }
+
+    @Test
+    void armsTaskOnceWhenAStaleDelayedVersionFollowsInTheSameBatch() {
+        long staleDueAt = nextRunAt.minusSeconds(600).toEpochMilli();
+
+        listener.listen(List.of(
+                message(new TaskRefMessage(TASK_ID, 2, nextRunAt.toEpochMilli()), null),
+                message(new TaskRefMessage(TASK_ID, 1, staleDueAt), staleDueAt)));
+
+        verify(taskTimer, times(1)).schedule(any(), eq(nextRunAt));
+        verify(taskRepository).markAllAsQueued(List.of(TASK_ID), "node-1");
+    }
+
+    @Test
+    void armsTaskOnceWhenEitherDelayedVersionIsAwaitingRelease() {
+        long staleDueAt = nextRunAt.minusSeconds(600).toEpochMilli();
+
+        when(brokerDelayedDelivery.isAwaitingRelease(task, nextRunAt.toEpochMilli())).thenReturn(true);
+
+        listener.listen(List.of(
+                message(new TaskRefMessage(TASK_ID, 2, nextRunAt.toEpochMilli()), nextRunAt.toEpochMilli()),
+                message(new TaskRefMessage(TASK_ID, 1, staleDueAt), staleDueAt)));
+
+        verify(taskTimer, times(1)).schedule(any(), eq(nextRunAt));
+        verify(taskRepository).markAllAsQueued(List.of(TASK_ID), "node-1");
+    }
+
+    @Test
+    void discardsTaskWhenEveryDelayedVersionIsStale() {
+        long staleDueAt = nextRunAt.minusSeconds(600).toEpochMilli();
+        long olderDueAt = nextRunAt.minusSeconds(1200).toEpochMilli();
+
+        listener.listen(List.of(
+                message(new TaskRefMessage(TASK_ID, 2, staleDueAt), staleDueAt),
+                message(new TaskRefMessage(TASK_ID, 1, olderDueAt), olderDueAt)));
+
+        verify(taskTimer, never()).schedule(any(), any());
+        verify(taskRepository, never()).markAllAsQueued(any(), any());
+    }
+
+    private static Message<TaskRefMessage> message(TaskRefMessage payload, Long delayedUntil) {
+        MessageBuilder<TaskRefMessage> builder = MessageBuilder.withPayload(payload);
+
+        if (delayedUntil != null) {
+            builder.setHeader(ScheduleTaskProducer.DELAYED_UNTIL_HEADER, delayedUntil);
+        }
+
+        return builder.build();
+    }
+}
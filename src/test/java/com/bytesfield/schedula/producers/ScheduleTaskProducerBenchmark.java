@@ -0,0 +1,143 @@
+package com.bytesfield.schedula.producers;
+
+import com.bytesfield.schedula.config.rabbitmq.TaskRefMessageConverter;
+import com.bytesfield.schedula.models.entities.Task;
+import com.bytesfield.schedula.models.enums.TaskPriority;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ConfirmListener;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.ConnectionFactory;
+import org.mockito.Mockito;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Measures the throughput of ScheduleTaskProducer.sendTasks for several confirm batch sizes. Run its main method on
+ * the test classpath; it publishes through a real RabbitTemplate with correlated confirms and the production message
+ * converter, over a stand-in channel that acks every publish after a fixed broker round trip, and prints the tasks
+ * confirmed per second.
+ */
+public final class ScheduleTaskProducerBenchmark {
+
+    private static final int TASKS = 20_000;
+    private static final int[] CONFIRM_BATCH_SIZES = {10, 100, 1_000};
+    private static final long ACK_DELAY_MICROS = 1_000;
+
+    private ScheduleTaskProducerBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        ScheduledExecutorService broker = Executors.newSingleThreadScheduledExecutor();
+        CachingConnectionFactory connectionFactory = new CachingConnectionFactory(brokerStandIn(broker));
+        connectionFactory.setPublisherConfirmType(CachingConnectionFactory.ConfirmType.CORRELATED);
+
+        RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
+        rabbitTemplate.setMessageConverter(
+                new TaskRefMessageConverter(new Jackson2JsonMessageConverter(new ObjectMapper())));
+
+        ScheduleTaskProducer producer = new ScheduleTaskProducer(rabbitTemplate);
+        ReflectionTestUtils.setField(producer, "confirmTimeoutMillis", 10_000L);
+        List<Task> tasks = tasks();
+
+        try {
+            for (int round = 0; round < 2; round++) {
+                for (int confirmBatchSize : CONFIRM_BATCH_SIZES) {
+                    ReflectionTestUtils.setField(producer, "confirmBatchSize", confirmBatchSize);
+
+                    long began = System.nanoTime();
+                    int confirmed = producer.sendTasks(tasks).size();
+                    long elapsedNanos = System.nanoTime() - began;
+
+                    if (confirmed != TASKS) {
+                        throw new IllegalStateException("Only " + confirmed + " of " + TASKS + " tasks confirmed");
+                    }
+
+                    if (round == 1) {
+                        System.out.printf("confirm batch %5d: %8.0f tasks/s, %6.1f us per task%n", confirmBatchSize,
+                                TASKS / (elapsedNanos / 1e9), elapsedNanos / 1e3 / TASKS);
+                    }
+                }
+            }
+        } finally {
+            connectionFactory.destroy();
+            broker.shutdownNow();
+        }
+    }
+
+    private static List<Task> tasks() {
+        Instant nextRunAt = Instant.now().plusSeconds(60);
+        List<Task> tasks = new ArrayList<>(TASKS);
+
+        for (int i = 0; i < TASKS; i++) {
+            Task task = new Task();
+            task.setId(i + 1);
+            task.setVersion(1);
+            task.setNextRunAt(nextRunAt.plusMillis(i));
+            task.setPriority(TaskPriority.values()[i % TaskPriority.values().length]);
+            tasks.add(task);
+        }
+
+        return tasks;
+    }
+
+    // A client connection factory whose channels ack each publish on the broker thread, one round trip later
+    private static ConnectionFactory brokerStandIn(ScheduledExecutorService broker) throws IOException {
+        Connection connection = mock(Connection.class);
+        when(connection.isOpen()).thenReturn(true);
+        when(connection.createChannel()).thenAnswer(invocation -> channel(broker));
+
+        return mock(ConnectionFactory.class, invocation -> invocation.getMethod().getReturnType() == Connection.class
+                ? connection
+                : Mockito.RETURNS_DEFAULTS.answer(invocation));
+    }
+
+    private static Channel channel(ScheduledExecutorService broker) throws IOException {
+        // Stub-only, so the mock does not record every publish
+        Channel channel = mock(Channel.class, withSettings().stubOnly());
+        AtomicLong nextSeqNo = new AtomicLong(1);
+        AtomicReference<ConfirmListener> confirms = new AtomicReference<>();
+
+        when(channel.isOpen()).thenReturn(true);
+        when(channel.getNextPublishSeqNo()).thenAnswer(invocation -> nextSeqNo.get());
+        doAnswer(invocation -> {
+            confirms.set(invocation.getArgument(0));
+            return null;
+        }).when(channel).addConfirmListener(any(ConfirmListener.class));
+        doAnswer(invocation -> {
+            long seqNo = nextSeqNo.getAndIncrement();
+
+            broker.schedule(() -> {
+                try {
+                    confirms.get().handleAck(seqNo, false);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }, ACK_DELAY_MICROS, TimeUnit.MICROSECONDS);
+
+            return null;
+        }).when(channel).basicPublish(anyString(), anyString(), anyBoolean(), any(), any());
+
+        return channel;
+    }
+}
@@ -0,0 +1,122 @@
+package com.bytesfield.schedula.scheduler;
+
+import com.bytesfield.schedula.models.DueTaskRef;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DueTaskIndexTest {
+
+    private final DueTaskIndex index = new DueTaskIndex();
+    private final Instant now = Instant.now();
+
+    @Test
+    void returnsDueTasksInDueOrder() throws InterruptedException {
+        index.load(List.of(ref(3, -1_000), ref(1, -3_000), ref(2, -2_000), ref(4, 60_000)), now.plusSeconds(120));
+
+        assertThat(index.awaitDue(10, 0)).containsExactly(1, 2, 3);
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.awaitDue(10, 0)).isEmpty();
+    }
+
+    @Test
+    void capsTheBatch() throws InterruptedException {
+        index.load(List.of(ref(1, -3_000), ref(2, -2_000), ref(3, -1_000)), now.plusSeconds(120));
+
+        assertThat(index.awaitDue(2, 0)).containsExactly(1, 2);
+        assertThat(index.awaitDue(2, 0)).containsExactly(3);
+    }
+
+    @Test
+    void offerOnlyTracksTasksInsideTheLoadedWindow() {
+        assertThat(index.offer(1, now)).isFalse();
+
+        index.load(List.of(), now.plusSeconds(60));
+
+        assertThat(index.offer(1, now.plusSeconds(30))).isTrue();
+        assertThat(index.offer(2, now.plusSeconds(90))).isFalse();
+        assertThat(index.offer(3, null)).isFalse();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void movedTaskIsReturnedOnceAtItsLatestDueTime() throws InterruptedException {
+        index.load(List.of(ref(1, -1_000), ref(2, -500)), now.plusSeconds(120));
+
+        assertThat(index.offer(1, now.plusSeconds(60))).isTrue();
+        assertThat(index.offer(2, now.minusSeconds(5))).isTrue();
+
+        assertThat(index.awaitDue(10, 0)).containsExactly(2);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void offerPastTheWindowStopsTrackingTheTask() throws InterruptedException {
+        index.load(List.of(ref(1, -1_000)), now.plusSeconds(60));
+
+        assertThat(index.offer(1, now.plusSeconds(600))).isFalse();
+        assertThat(index.awaitDue(10, 0)).isEmpty();
+    }
+
+    @Test
+    void removedTaskIsNotReturned() throws InterruptedException {
+        index.load(List.of(ref(1, -1_000), ref(2, -500)), now.plusSeconds(60));
+        index.remove(1);
+
+        assertThat(index.awaitDue(10, 0)).containsExactly(2);
+    }
+
+    @Test
+    void waitsUntilTheHeadIsDue() throws InterruptedException {
+        index.load(List.of(), Instant.now().plusSeconds(60));
+        index.offer(1, Instant.now().plusMillis(200));
+
+        long began = System.currentTimeMillis();
+
+        assertThat(index.awaitDue(10, 5_000)).containsExactly(1);
+        assertThat(System.currentTimeMillis() - began).isBetween(150L, 4_000L);
+    }
+
+    @Test
+    void offerWakesAWaitingPoller() throws InterruptedException {
+        index.load(List.of(), Instant.now().plusSeconds(60));
+
+        Thread offerer = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            index.offer(7, Instant.now());
+        });
+        offerer.start();
+
+        assertThat(index.awaitDue(10, 5_000)).containsExactly(7);
+
+        offerer.join();
+    }
+
+    @Test
+    void windowOnlyMovesForward() {
+        Instant later = now.plusSeconds(120);
+
+        index.load(List.of(), later);
+        index.load(List.of(), now.plusSeconds(60));
+        index.load(List.of(), null);
+
+        assertThat(index.getWindowEnd()).isEqualTo(later);
+
+        index.reset();
+
+        assertThat(index.getWindowEnd()).isNull();
+        assertThat(index.size()).isZero();
+    }
+
+    private DueTaskRef ref(int taskId, long offsetMillis) {
+        return new DueTaskRef(taskId, now.plusMillis(offsetMillis));
+    }
+}
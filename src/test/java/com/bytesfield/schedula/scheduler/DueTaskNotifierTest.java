@@ -0,0 +1,139 @@
+package com.bytesfield.schedula.scheduler;
+
+import com.bytesfield.schedula.dtos.TaskControlMessage;
+import com.bytesfield.schedula.listeners.TaskControlListener;
+import com.bytesfield.schedula.models.entities.Task;
+import com.bytesfield.schedula.models.enums.OutboxEventType;
+import com.bytesfield.schedula.producers.ScheduleTaskProducer;
+import com.bytesfield.schedula.producers.ScheduleTaskProducer.Publication;
+import com.bytesfield.schedula.scheduler.outbox.TaskOutbox;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class DueTaskNotifierTest {
+
+    private static final int TASK_ID = 7;
+
+    // Two nodes: the one serving the request, and the one owning the task's partition
+    private final Node requestNode = new Node(false);
+    private final Node ownerNode = new Node(true);
+    private final Instant dueAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void updateOnANonOwnerReachesTheOwnersIndex() throws InterruptedException {
+        Task task = task();
+
+        TransactionSynchronizationManager.initSynchronization();
+        requestNode.notifier.offerAfterCommit(task);
+        commit();
+
+        verify(requestNode.outbox).enqueue(task, OutboxEventType.OFFER);
+        assertThat(requestNode.index.size()).isZero();
+
+        // What the outbox relay broadcasts for the OFFER event, delivered to every node
+        Publication broadcast = ScheduleTaskProducer.offering(task.getId(), task.getNextRunAt());
+        deliverToEveryNode(broadcast);
+
+        assertThat(ownerNode.index.awaitDue(10, 0)).containsExactly(TASK_ID);
+        assertThat(requestNode.index.size()).isZero();
+    }
+
+    @Test
+    void runOnANonOwnerBroadcastsItsNextDueTimeRightAway() throws InterruptedException {
+        requestNode.notifier.offer(TASK_ID, dueAt);
+
+        ArgumentCaptor<Publication> broadcast = ArgumentCaptor.forClass(Publication.class);
+        verify(requestNode.producer).send(broadcast.capture());
+        deliverToEveryNode(broadcast.getValue());
+
+        assertThat(ownerNode.index.awaitDue(10, 0)).containsExactly(TASK_ID);
+    }
+
+    @Test
+    void ownerOffersToItsOwnIndexOnlyAfterTheCommit() throws InterruptedException {
+        TransactionSynchronizationManager.initSynchronization();
+        ownerNode.notifier.offerAfterCommit(task());
+
+        assertThat(ownerNode.index.size()).isZero();
+
+        commit();
+
+        assertThat(ownerNode.index.awaitDue(10, 0)).containsExactly(TASK_ID);
+        verifyNoInteractions(ownerNode.outbox, ownerNode.producer);
+    }
+
+    @Test
+    void cancellationStillReachesEveryNode() {
+        deliverToEveryNode(ScheduleTaskProducer.cancellation(TASK_ID, 3));
+
+        verify(requestNode.timerRegistry).cancelStale(TASK_ID, 3);
+        verify(ownerNode.timerRegistry).cancelStale(TASK_ID, 3);
+        assertThat(ownerNode.index.size()).isZero();
+    }
+
+    @Test
+    void nonOwnerDoesNotBroadcastATaskWithoutNextRun() {
+        requestNode.notifier.offer(TASK_ID, null);
+
+        verify(requestNode.producer, never()).send(any());
+    }
+
+    private Task task() {
+        Task task = new Task();
+        task.setId(TASK_ID);
+        task.setNextRunAt(dueAt);
+
+        return task;
+    }
+
+    private void deliverToEveryNode(Publication broadcast) {
+        TaskControlMessage message = (TaskControlMessage) broadcast.payload();
+
+        requestNode.listener.listen(message);
+        ownerNode.listener.listen(message);
+    }
+
+    private static void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+    }
+
+    private static final class Node {
+        private final DueTaskIndex index = new DueTaskIndex();
+        private final PartitionCoordinator coordinator = mock(PartitionCoordinator.class);
+        private final ScheduleTaskProducer producer = mock(ScheduleTaskProducer.class);
+        private final TaskOutbox outbox = mock(TaskOutbox.class);
+        private final TimerRegistry timerRegistry = mock(TimerRegistry.class);
+        private final DueTaskNotifier notifier = new DueTaskNotifier(index, coordinator, producer, outbox);
+        private final TaskControlListener listener = new TaskControlListener(timerRegistry, index, coordinator);
+
+        private Node(boolean ownsTask) {
+            when(coordinator.ownsTask(TASK_ID)).thenReturn(ownsTask);
+            index.load(List.of(), Instant.now().plusSeconds(60));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.bytesfield.schedula.scheduler;
+
+import com.bytesfield.schedula.models.entities.Task;
+import com.bytesfield.schedula.models.enums.TaskPriority;
+import com.bytesfield.schedula.models.enums.TaskStatus;
+import com.bytesfield.schedula.repositories.TaskRepository;
+import com.bytesfield.schedula.scheduler.executors.BoundedTaskExecutor;
+import org.junit.jupiter.api.AfterEach;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FiredTaskBatcherTest {
+
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final BoundedTaskExecutor executor = mock(BoundedTaskExecutor.class);
+    private final FireReleasePacer releasePacer = mock(FireReleasePacer.class);
+    private final DueTaskNotifier dueTaskNotifier = mock(DueTaskNotifier.class);
+    private final FiredTaskBatcher batcher = new FiredTaskBatcher(taskRepository, mock(TimerRegistry.class), executor,
+            releasePacer, task -> { }, new TenantWeights(4, 2, 1), dueTaskNotifier, 200, 1_000);
+
+    @AfterEach
+    void clearInterrupt() {
+        Thread.interrupted();
+    }
+
+    @Test
+    void interruptedReleaseDefersEveryUnreleasedTask() throws InterruptedException {
+        Task first = task(1, TaskPriority.HIGH);
+        Task second = task(2, TaskPriority.LOW);
+        Instant fireAt = Instant.now();
+
+        when(taskRepository.findAllWithUserByIdIn(any())).thenReturn(List.of(first, second));
+        when(taskRepository.deferRun(anyInt(), anyLong(), any())).thenReturn(1);
+        doThrow(new InterruptedException()).when(releasePacer).awaitRelease(any());
+
+        batcher.firedAll(List.of(batcher.newRef(1, 1, fireAt), batcher.newRef(2, 1, fireAt)));
+
+        verify(taskRepository).deferRun(eq(1), eq(1L), any());
+        verify(taskRepository).deferRun(eq(2), eq(1L), any());
+        verify(dueTaskNotifier).offer(eq(1), any());
+        verify(dueTaskNotifier).offer(eq(2), any());
+        verify(executor, never()).execute(any(), anyInt(), anyInt(), anyInt(), any());
+        assertThat(Thread.currentThread().isInterrupted()).isTrue();
+    }
+
+    @Test
+    void taskRejectedByTheExecutorsDelegateIsDeferred() {
+        ExecutorService delegate = Executors.newSingleThreadExecutor();
+        delegate.shutdown();
+
+        BoundedTaskExecutor refusingExecutor = new BoundedTaskExecutor("test", delegate, 1, 10,
+                new SimpleMeterRegistry());
+        FiredTaskBatcher refusingBatcher = new FiredTaskBatcher(taskRepository, mock(TimerRegistry.class),
+                refusingExecutor, releasePacer, task -> { }, new TenantWeights(4, 2, 1), dueTaskNotifier, 200, 1_000);
+
+        when(taskRepository.findAllWithUserByIdIn(any())).thenReturn(List.of(task(1, TaskPriority.NORMAL)));
+        when(taskRepository.deferRun(anyInt(), anyLong(), any())).thenReturn(1);
+
+        refusingBatcher.firedAll(List.of(refusingBatcher.newRef(1, 1, Instant.now())));
+
+        verify(taskRepository).deferRun(eq(1), eq(1L), any());
+        verify(dueTaskNotifier).offer(eq(1), any());
+    }
+
+    private static Task task(int id, TaskPriority priority) {
+        Task task = new Task();
+        task.setId(id);
+        task.setVersion(1);
+        task.setStatus(TaskStatus.QUEUED);
+        task.setPriority(priority);
+
+        return task;
+    }
+}
@@ -0,0 +1,137 @@
+package com.bytesfield.schedula.scheduler;
+
+import com.bytesfield.schedula.dtos.TaskRefMessage;
+import com.bytesfield.schedula.services.utils.CacheService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TaskMessageDeduplicatorTest {
+
+    private static final long DUE_AT = 1_750_000_000_000L;
+
+    private final CacheService cacheService = mock(CacheService.class);
+    private final SchedulerNode schedulerNode = new SchedulerNode("node-1");
+
+    @BeforeEach
+    void claimEveryKeyInRedis() {
+        when(cacheService.setValuesIfAbsent(anyList(), anyString(), anyLong(), any()))
+                .thenAnswer(invocation -> Collections.nCopies(invocation.<List<?>>getArgument(0).size(), true));
+    }
+
+    @Test
+    void keepsBothVersionsOfATaskInTheSameBatch() {
+        TaskMessageDeduplicator deduplicator = deduplicator(600, 10, 1_000);
+        TaskRefMessage first = new TaskRefMessage(7, 1, DUE_AT);
+        TaskRefMessage edited = new TaskRefMessage(7, 2, DUE_AT);
+
+        assertThat(deduplicator.retainFirstDeliveries(List.of(first, edited, copyOf(first))))
+                .containsExactly(first, edited);
+    }
+
+    @Test
+    void dropsDeliveriesAlreadyClaimedInRedis() {
+        TaskMessageDeduplicator deduplicator = deduplicator(600, 10, 1_000);
+        TaskRefMessage claimedElsewhere = new TaskRefMessage(7, 1, DUE_AT);
+        TaskRefMessage fresh = new TaskRefMessage(8, 1, DUE_AT);
+
+        doReturn(List.of(false, true))
+                .when(cacheService).setValuesIfAbsent(anyList(), anyString(), anyLong(), any());
+
+        assertThat(deduplicator.retainFirstDeliveries(List.of(claimedElsewhere, fresh))).containsExactly(fresh);
+    }
+
+    @Test
+    void processedDeliveriesAreDroppedLocallyWithoutRedis() {
+        TaskMessageDeduplicator deduplicator = deduplicator(600, 10, 1_000);
+        TaskRefMessage message = new TaskRefMessage(7, 1, DUE_AT);
+
+        deduplicator.processed(deduplicator.retainFirstDeliveries(List.of(message)));
+
+        assertThat(deduplicator.retainFirstDeliveries(List.of(copyOf(message)))).isEmpty();
+        verify(cacheService).setValuesIfAbsent(anyList(), anyString(), anyLong(), any());
+    }
+
+    @Test
+    void failedDeliveriesAreReleasedAndAcceptedAgain() {
+        TaskMessageDeduplicator deduplicator = deduplicator(600, 10, 1_000);
+        TaskRefMessage message = new TaskRefMessage(7, 1, DUE_AT);
+
+        deduplicator.failed(deduplicator.retainFirstDeliveries(List.of(message)));
+
+        verify(cacheService).deleteValueIfEquals("schedula:delivered:7:1:" + DUE_AT, "node-1");
+        assertThat(deduplicator.retainFirstDeliveries(List.of(copyOf(message)))).containsExactly(message);
+    }
+
+    @Test
+    void legacyMessagesWithoutVersionAreNotDeduplicated() {
+        TaskMessageDeduplicator deduplicator = deduplicator(600, 10, 1_000);
+        TaskRefMessage legacy = new TaskRefMessage(7, TaskRefMessage.UNKNOWN_VERSION, DUE_AT);
+
+        deduplicator.processed(List.of(legacy));
+
+        assertThat(deduplicator.retainFirstDeliveries(List.of(legacy, copyOf(legacy)))).hasSize(2);
+        verify(cacheService, never()).setValuesIfAbsent(anyList(), anyString(), anyLong(), any());
+    }
+
+    @Test
+    void localWindowForgetsDeliveriesOnceTheirBucketRotatesOut() throws InterruptedException {
+        // A 1s window in 10 buckets of 100ms; with Redis down only the local window applies
+        TaskMessageDeduplicator deduplicator = deduplicator(1, 10, 1_000);
+        TaskRefMessage message = new TaskRefMessage(7, 1, DUE_AT);
+
+        redisIsDown();
+        deduplicator.processed(List.of(message));
+
+        Thread.sleep(300);
+
+        assertThat(deduplicator.retainFirstDeliveries(List.of(copyOf(message)))).isEmpty();
+
+        Thread.sleep(1_000);
+
+        assertThat(deduplicator.retainFirstDeliveries(List.of(copyOf(message)))).containsExactly(message);
+    }
+
+    @Test
+    void fullBucketStopsCachingLocally() {
+        // One entry per bucket, and both deliveries land in the same 60s bucket
+        TaskMessageDeduplicator deduplicator = deduplicator(600, 10, 10);
+        TaskRefMessage cached = new TaskRefMessage(7, 1, DUE_AT);
+        TaskRefMessage overflow = new TaskRefMessage(8, 1, DUE_AT);
+
+        deduplicator.processed(List.of(cached, overflow));
+        redisIsDown();
+
+        assertThat(deduplicator.retainFirstDeliveries(List.of(copyOf(cached), copyOf(overflow))))
+                .containsExactly(overflow);
+    }
+
+    private TaskMessageDeduplicator deduplicator(long windowSeconds, int buckets, int maxLocalEntries) {
+        return new TaskMessageDeduplicator(cacheService, schedulerNode, windowSeconds, buckets, maxLocalEntries,
+                new SimpleMeterRegistry());
+    }
+
+    private void redisIsDown() {
+        doThrow(new IllegalStateException("Redis is down"))
+                .when(cacheService).setValuesIfAbsent(anyList(), anyString(), anyLong(), any());
+    }
+
+    private static TaskRefMessage copyOf(TaskRefMessage message) {
+        return new TaskRefMessage(message.getTaskId(), message.getVersion(), message.getDueAtMillis());
+    }
+}
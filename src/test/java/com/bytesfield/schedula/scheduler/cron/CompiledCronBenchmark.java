@@ -0,0 +1,82 @@
+package com.bytesfield.schedula.scheduler.cron;
+
+import org.quartz.CronExpression;
+
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Compares next-fire-time evaluation of CompiledCron against Spring's CronExpression, which computed fire times
+ * before it, and Quartz's CronExpression, which validated them. Run its main method on the test classpath; it prints
+ * the average time of one next-fire-time call per expression.
+ */
+public final class CompiledCronBenchmark {
+
+    private static final String[][] EXPRESSIONS = {
+            // Quartz syntax, Spring syntax
+            {"0 0 * * * ?", "0 0 * * * *"},
+            {"0 */15 9-17 ? * MON-FRI", "0 */15 9-17 * * MON-FRI"},
+            {"0 0 12 L * ?", "0 0 12 L * *"},
+            {"0 0 12 ? * 6#3", "0 0 12 * * FRI#3"},
+    };
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int CALLS = 200_000;
+    private static final long UNTIL = Instant.parse("2100-01-01T00:00:00Z").toEpochMilli();
+
+    private CompiledCronBenchmark() {
+    }
+
+    public static void main(String[] args) throws ParseException {
+        long start = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+
+        for (String[] expression : EXPRESSIONS) {
+            CompiledCron compiled = CompiledCron.compile(expression[0], ZoneOffset.UTC);
+            org.springframework.scheduling.support.CronExpression spring =
+                    org.springframework.scheduling.support.CronExpression.parse(expression[1]);
+            CronExpression quartz = new CronExpression(expression[0]);
+            quartz.setTimeZone(TimeZone.getTimeZone(ZoneOffset.UTC));
+
+            System.out.printf("%-26s compiled %8.1f ns  spring %8.1f ns  quartz %8.1f ns%n", expression[0],
+                    measure(start, compiled::nextFireAfter),
+                    measure(start, after -> spring.next(ZonedDateTime.ofInstant(Instant.ofEpochMilli(after),
+                            ZoneOffset.UTC)).toInstant().toEpochMilli()),
+                    measure(start, after -> quartz.getTimeAfter(new Date(after)).getTime()));
+        }
+    }
+
+    // Walks consecutive fire times, so every call starts from a different instant, and starts over before Quartz
+    // stops firing a century from now
+    private static double measure(long start, LongUnaryOperator next) {
+        long sink = 0;
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            long after = start;
+
+            for (int i = 0; i < CALLS; i++) {
+                after = next.applyAsLong(after < UNTIL ? after : start);
+            }
+
+            sink += after;
+        }
+
+        long after = start;
+        long began = System.nanoTime();
+
+        for (int i = 0; i < CALLS; i++) {
+            after = next.applyAsLong(after < UNTIL ? after : start);
+        }
+
+        long elapsed = System.nanoTime() - began;
+
+        if (sink + after == 42) {
+            System.out.println();
+        }
+
+        return (double) elapsed / CALLS;
+    }
+}
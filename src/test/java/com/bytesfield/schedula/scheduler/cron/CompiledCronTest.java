@@ -0,0 +1,174 @@
+package com.bytesfield.schedula.scheduler.cron;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.quartz.CronExpression;
+
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompiledCronTest {
+
+    private static final ZoneId UTC = ZoneOffset.UTC;
+    private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+
+    private static final long FROM = Instant.parse("2020-01-01T00:00:00Z").toEpochMilli();
+    private static final long TO = Instant.parse("2030-01-01T00:00:00Z").toEpochMilli();
+    private static final int INSTANTS_PER_EXPRESSION = 3_000;
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "0 0 12 * * ?",
+            "0 */15 * * * ?",
+            "0 0/5 14,18 * * ?",
+            "15 10-20/3 8-17 ? * MON-FRI",
+            "0 0 0 1,15 * ?",
+            "0 0 12 L * ?",
+            "0 0 12 L-3 * ?",
+            "0 0 12 LW * ?",
+            "0 0 12 1W * ?",
+            "0 0 12 15W * ?",
+            "0 0 12 30W * ?",
+            "0 0 12 31W * ?",
+            "0 0 12 ? * 6L",
+            "0 0 12 ? * 2#1",
+            "0 0 12 ? * 6#5",
+            "0 0 12 ? * L",
+            "0 30 9 29 2 ?",
+            "0 0 6 ? JAN,JUL SUN",
+            "0 0 0 1 1 ? 2025-2027",
+    })
+    void matchesQuartzInUtc(String expression) throws ParseException {
+        CompiledCron cron = CompiledCron.compile(expression, UTC);
+        CronExpression quartz = new CronExpression(expression);
+        quartz.setTimeZone(TimeZone.getTimeZone(UTC));
+
+        Random random = new Random(expression.hashCode());
+        List<String> mismatches = new ArrayList<>();
+
+        for (int i = 0; i < INSTANTS_PER_EXPRESSION; i++) {
+            long after = FROM + (long) (random.nextDouble() * (TO - FROM));
+            Date expected = quartz.getTimeAfter(new Date(after));
+            long actual = cron.nextFireAfter(after);
+
+            if (actual != (expected == null ? CompiledCron.NO_FIRE : expected.getTime())) {
+                mismatches.add(Instant.ofEpochMilli(after) + ": expected " + expected + ", got " + actual);
+            }
+        }
+
+        assertThat(mismatches).isEmpty();
+    }
+
+    @Test
+    void nearestWeekdaySkipsMonthsShorterThanTheDay() {
+        CompiledCron cron = CompiledCron.compile("0 0 12 31W * ?", UTC);
+
+        assertThat(next(cron, "2024-02-02T00:00:00Z")).isEqualTo("2024-03-29T12:00:00Z");
+        assertThat(next(cron, "2025-11-16T00:00:00Z")).isEqualTo("2025-12-31T12:00:00Z");
+        // Quartz rolls September 31st over to October 1st 2022, a Saturday, and fires on Friday the 30th
+        assertThat(next(cron, "2022-09-01T00:00:00Z")).isEqualTo("2022-09-30T12:00:00Z");
+    }
+
+    @Test
+    void nearestWeekdayStaysInsideTheMonth() {
+        // 2022-10-01 is a Saturday, so 1W moves forward to Monday the 3rd rather than back into September
+        assertThat(next(CompiledCron.compile("0 0 12 1W * ?", UTC), "2022-09-15T00:00:00Z"))
+                .isEqualTo("2022-10-03T12:00:00Z");
+        // 2023-04-30 is a Sunday and the last day, so 30W moves back to Friday the 28th
+        assertThat(next(CompiledCron.compile("0 0 12 30W * ?", UTC), "2023-04-15T00:00:00Z"))
+                .isEqualTo("2023-04-28T12:00:00Z");
+        // 2024-06-15 is a Saturday, so 15W fires on Friday the 14th
+        assertThat(next(CompiledCron.compile("0 0 12 15W * ?", UTC), "2024-06-01T00:00:00Z"))
+                .isEqualTo("2024-06-14T12:00:00Z");
+    }
+
+    @Test
+    void lastDayOfMonth() {
+        CompiledCron cron = CompiledCron.compile("0 0 12 L * ?", UTC);
+
+        assertThat(next(cron, "2024-02-01T00:00:00Z")).isEqualTo("2024-02-29T12:00:00Z");
+        assertThat(next(cron, "2023-02-01T00:00:00Z")).isEqualTo("2023-02-28T12:00:00Z");
+        assertThat(next(CompiledCron.compile("0 0 12 L-2 * ?", UTC), "2024-04-01T00:00:00Z"))
+                .isEqualTo("2024-04-28T12:00:00Z");
+    }
+
+    @Test
+    void lastWeekdayOfMonth() {
+        CompiledCron cron = CompiledCron.compile("0 0 12 LW * ?", UTC);
+
+        // 2024-08-31 is a Saturday, 2024-03-31 a Sunday
+        assertThat(next(cron, "2024-08-01T00:00:00Z")).isEqualTo("2024-08-30T12:00:00Z");
+        assertThat(next(cron, "2024-03-01T00:00:00Z")).isEqualTo("2024-03-29T12:00:00Z");
+    }
+
+    @Test
+    void nthAndLastDayOfWeek() {
+        // First Monday, fifth Friday and last Friday
+        assertThat(next(CompiledCron.compile("0 0 12 ? * 2#1", UTC), "2024-09-02T12:00:00Z"))
+                .isEqualTo("2024-10-07T12:00:00Z");
+        assertThat(next(CompiledCron.compile("0 0 12 ? * 6#5", UTC), "2024-06-01T00:00:00Z"))
+                .isEqualTo("2024-08-30T12:00:00Z");
+        assertThat(next(CompiledCron.compile("0 0 12 ? * 6L", UTC), "2024-11-01T00:00:00Z"))
+                .isEqualTo("2024-11-29T12:00:00Z");
+        // A bare L in day-of-week is Saturday
+        assertThat(next(CompiledCron.compile("0 0 12 ? * L", UTC), "2024-11-01T00:00:00Z"))
+                .isEqualTo("2024-11-02T12:00:00Z");
+    }
+
+    @Test
+    void localTimeInDstGapFiresAfterTheTransition() {
+        CompiledCron cron = CompiledCron.compile("0 30 2 * * ?", NEW_YORK);
+
+        // 02:30 does not exist on 2024-03-10 and resolves to 03:30 EDT, the next day is back to 02:30 EDT
+        assertThat(next(cron, "2024-03-09T12:00:00Z")).isEqualTo("2024-03-10T07:30:00Z");
+        assertThat(next(cron, "2024-03-10T07:30:00Z")).isEqualTo("2024-03-11T06:30:00Z");
+    }
+
+    @Test
+    void localTimeInDstOverlapFiresOnce() {
+        CompiledCron cron = CompiledCron.compile("0 30 1 * * ?", NEW_YORK);
+
+        // 01:30 happens twice on 2024-11-03; only the first, in EDT, fires
+        assertThat(next(cron, "2024-11-02T12:00:00Z")).isEqualTo("2024-11-03T05:30:00Z");
+        assertThat(next(cron, "2024-11-03T05:30:00Z")).isEqualTo("2024-11-04T06:30:00Z");
+    }
+
+    @Test
+    void nextFireTimesAreConsecutive() {
+        long[] out = new long[3];
+        int count = CompiledCron.compile("0 0 0 1 1 ? 2025-2026", UTC)
+                .nextFireTimes(Instant.parse("2024-06-01T00:00:00Z").toEpochMilli(), out);
+
+        assertThat(count).isEqualTo(2);
+        assertThat(Instant.ofEpochMilli(out[0]).toString()).isEqualTo("2025-01-01T00:00:00Z");
+        assertThat(Instant.ofEpochMilli(out[1]).toString()).isEqualTo("2026-01-01T00:00:00Z");
+    }
+
+    @Test
+    void rejectsInvalidExpressions() {
+        assertThatThrownBy(() -> CompiledCron.compile("0 0 12 * *", UTC)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CompiledCron.compile("0 0 12 * * MON", UTC)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CompiledCron.compile("0 0 12 32W * ?", UTC)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(CompiledCron.isValid("0 0 12 ? * MON-FRI")).isTrue();
+    }
+
+    @Test
+    void internsEquivalentSpellings() {
+        assertThat(CompiledCron.compile(" 0 0 12 ? *  mon ")).isSameAs(CompiledCron.compile("0 0 12 ? * MON"));
+    }
+
+    private static String next(CompiledCron cron, String after) {
+        return Instant.ofEpochMilli(cron.nextFireAfter(Instant.parse(after).toEpochMilli())).toString();
+    }
+}
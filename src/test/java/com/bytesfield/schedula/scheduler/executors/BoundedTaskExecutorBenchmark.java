@@ -0,0 +1,155 @@
+package com.bytesfield.schedula.scheduler.executors;
+
+import com.bytesfield.schedula.models.enums.TaskPriority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long fired tasks wait for a slot of the BoundedTaskExecutor when a backlog builds up. Run its main
+ * method on the test classpath; it queues each backlog at once, first on a single FIFO queue and then split the way
+ * production splits it, into priority lanes or into one flow per user, and prints the queueing latency per group.
+ */
+public final class BoundedTaskExecutorBenchmark {
+
+    private static final int MAX_CONCURRENCY = 50;
+    private static final long TASK_MILLIS = 2;
+
+    private BoundedTaskExecutorBenchmark() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        for (int round = 0; round < 2; round++) {
+            boolean report = round == 1;
+
+            priorityBacklog(report);
+            userBurst(report);
+        }
+    }
+
+    // 20k tasks, 90% of them LOW, queued in random order
+    private static void priorityBacklog(boolean report) throws InterruptedException {
+        Random random = new Random(13);
+        List<Job> fifo = new ArrayList<>();
+        List<Job> weighted = new ArrayList<>();
+
+        for (int i = 0; i < 20_000; i++) {
+            TaskPriority priority = random.nextInt(10) < 9
+                    ? TaskPriority.LOW
+                    : TaskPriority.values()[random.nextInt(TaskPriority.LOW.ordinal())];
+
+            fifo.add(new Job(priority.name(), 0, 0));
+            weighted.add(new Job(priority.name(), priority.ordinal(), 0));
+        }
+
+        List<String> groups = Arrays.stream(TaskPriority.values()).map(TaskPriority::name).toList();
+
+        print(report, "priority, single FIFO lane", groups, run(new int[]{1}, fifo));
+        print(report, "priority, weighted lanes", groups, run(TaskPriority.weights(), weighted));
+    }
+
+    // One user bursts 20k tasks just before 10 other users queue 100 tasks each, all on the same priority
+    private static void userBurst(boolean report) throws InterruptedException {
+        List<Job> fifo = new ArrayList<>();
+        List<Job> flows = new ArrayList<>();
+
+        for (int i = 0; i < 20_000; i++) {
+            fifo.add(new Job("bursting", 0, 0));
+            flows.add(new Job("bursting", 0, 0));
+        }
+
+        for (int user = 1; user <= 10; user++) {
+            for (int i = 0; i < 100; i++) {
+                fifo.add(new Job("others", 0, 0));
+                flows.add(new Job("others", 0, user));
+            }
+        }
+
+        List<String> groups = List.of("bursting", "others");
+
+        print(report, "fairness, single FIFO flow", groups, run(new int[]{1}, fifo));
+        print(report, "fairness, one DRR flow per user", groups, run(new int[]{1}, flows));
+    }
+
+    private static Map<String, long[]> run(int[] laneWeights, List<Job> jobs) throws InterruptedException {
+        BoundedTaskExecutor executor = new BoundedTaskExecutor("benchmark", Executors.newVirtualThreadPerTaskExecutor(),
+                MAX_CONCURRENCY, jobs.size(), laneWeights, new SimpleMeterRegistry());
+        long[] waitedNanos = new long[jobs.size()];
+        CountDownLatch finished = new CountDownLatch(jobs.size());
+        long queuedAt = System.nanoTime();
+
+        try {
+            for (int i = 0; i < jobs.size(); i++) {
+                int index = i;
+                Job job = jobs.get(i);
+
+                executor.execute(() -> {
+                    waitedNanos[index] = System.nanoTime() - queuedAt;
+                    sleep();
+                    finished.countDown();
+                }, job.lane(), job.flowId(), 1);
+            }
+
+            if (!finished.await(5, TimeUnit.MINUTES)) {
+                throw new IllegalStateException("Backlog did not drain");
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Map<String, List<Long>> byGroup = new LinkedHashMap<>();
+
+        for (int i = 0; i < jobs.size(); i++) {
+            byGroup.computeIfAbsent(jobs.get(i).group(), group -> new ArrayList<>())
+                    .add(TimeUnit.NANOSECONDS.toMillis(waitedNanos[i]));
+        }
+
+        Map<String, long[]> latencies = new LinkedHashMap<>();
+
+        byGroup.forEach((group, waited) -> {
+            long[] sorted = waited.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            latencies.put(group, sorted);
+        });
+
+        return latencies;
+    }
+
+    private static void print(boolean report, String scenario, List<String> groups, Map<String, long[]> latencies) {
+        if (!report) {
+            return;
+        }
+
+        System.out.println(scenario);
+
+        for (String group : groups) {
+            long[] sorted = latencies.get(group);
+
+            System.out.printf("  %-10s %6d tasks, p50 %5d ms, p99 %5d ms%n", group, sorted.length,
+                    percentile(sorted, 0.5), percentile(sorted, 0.99));
+        }
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(percentile * (sorted.length - 1)))];
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(TASK_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Job(String group, int lane, int flowId) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.bytesfield.schedula.scheduler.executors;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedTaskExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void commandRejectedByTheDelegateGoesToItsRejectionHandler() {
+        ExecutorService delegate = Executors.newSingleThreadExecutor();
+        delegate.shutdown();
+
+        BoundedTaskExecutor executor = new BoundedTaskExecutor("test", delegate, 1, 10, meterRegistry);
+        List<RejectedExecutionException> rejections = new ArrayList<>();
+
+        executor.execute(() -> { }, 0, 0, 1, rejections::add);
+
+        assertThat(rejections).hasSize(1);
+        assertThat(executor.getQueueDepth()).isZero();
+        assertThat(executor.getActiveCount()).isZero();
+        assertThat(meterRegistry.get("schedula.executor.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void fullQueueStillRejectsByThrowing() {
+        ExecutorService delegate = Executors.newSingleThreadExecutor();
+        delegate.shutdown();
+
+        BoundedTaskExecutor executor = new BoundedTaskExecutor("test", delegate, 1, 0, meterRegistry);
+        List<RejectedExecutionException> rejections = new ArrayList<>();
+
+        assertThatThrownBy(() -> executor.execute(() -> { }, 0, 0, 1, rejections::add))
+                .isInstanceOf(RejectedExecutionException.class);
+        assertThat(rejections).isEmpty();
+    }
+}
@@ -0,0 +1,193 @@
+package com.bytesfield.schedula.scheduler.timers;
+
+import com.bytesfield.schedula.scheduler.TimerHandle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.SchedulingException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK_MILLIS = 10;
+    private static final long MAX_LATENESS_MILLIS = 1_000;
+
+    private final Map<Integer, Long> firedAt = new ConcurrentHashMap<>();
+    private HierarchicalTimingWheel wheel;
+
+    @AfterEach
+    void stopWheel() {
+        if (wheel != null) {
+            wheel.stop();
+        }
+    }
+
+    @Test
+    void firesEveryTimeoutAroundCascadeBoundaries() throws InterruptedException {
+        // 4 slots on 3 levels: levels turn over every 4 and 16 ticks and the wheel covers 64 ticks
+        wheel = new HierarchicalTimingWheel(TICK_MILLIS, 4, 3, Runnable::run);
+        wheel.start();
+
+        long start = System.currentTimeMillis();
+        int[] delayTicks = {1, 3, 4, 5, 8, 15, 16, 17, 32, 63, 64, 65, 80};
+        CountDownLatch fired = new CountDownLatch(delayTicks.length);
+        List<Long> fireAts = new ArrayList<>();
+
+        for (int i = 0; i < delayTicks.length; i++) {
+            long fireAt = start + delayTicks[i] * TICK_MILLIS;
+
+            fireAts.add(fireAt);
+            schedule(i, fireAt, fired);
+        }
+
+        assertThat(fired.await(5, TimeUnit.SECONDS)).isTrue();
+
+        for (int i = 0; i < delayTicks.length; i++) {
+            assertThat(firedAt.get(i)).isBetween(fireAts.get(i), fireAts.get(i) + MAX_LATENESS_MILLIS);
+        }
+
+        assertThat(wheel.pendingCount()).isZero();
+    }
+
+    @Test
+    void firesTimeoutsInDeadlineOrder() throws InterruptedException {
+        wheel = new HierarchicalTimingWheel(TICK_MILLIS, 4, 3, Runnable::run);
+        wheel.start();
+
+        long start = System.currentTimeMillis();
+        List<Integer> order = new ArrayList<>();
+        CountDownLatch fired = new CountDownLatch(3);
+
+        // Scheduled out of order and on different levels
+        for (int id : new int[]{2, 0, 1}) {
+            wheel.schedule(() -> {
+                order.add(id);
+                fired.countDown();
+            }, Instant.ofEpochMilli(start + (id + 1) * 7 * TICK_MILLIS));
+        }
+
+        assertThat(fired.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(order).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    void cancelAfterCascadeIntoLowerLevel() throws InterruptedException {
+        wheel = new HierarchicalTimingWheel(TICK_MILLIS, 4, 2, Runnable::run);
+        wheel.start();
+
+        long start = System.currentTimeMillis();
+        CountDownLatch sentinel = new CountDownLatch(1);
+
+        // Placed on level 1, cascaded to level 0 four ticks later
+        TimerHandle handle = schedule(0, start + 7 * TICK_MILLIS, new CountDownLatch(1));
+        schedule(1, start + 12 * TICK_MILLIS, sentinel);
+
+        Thread.sleep(5 * TICK_MILLIS);
+
+        assertThat(handle.cancel()).isTrue();
+        assertThat(handle.isCancelled()).isTrue();
+        assertThat(sentinel.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(firedAt).doesNotContainKey(0);
+        assertThat(wheel.pendingCount()).isZero();
+    }
+
+    @Test
+    void cancelAfterCascadeFromTopLevel() throws InterruptedException {
+        // Covers 16 ticks, so both timeouts start past the top level and are placed again when it turns over
+        wheel = new HierarchicalTimingWheel(TICK_MILLIS, 4, 2, Runnable::run);
+        wheel.start();
+
+        long start = System.currentTimeMillis();
+        CountDownLatch sentinel = new CountDownLatch(1);
+
+        TimerHandle handle = schedule(0, start + 30 * TICK_MILLIS, new CountDownLatch(1));
+        schedule(1, start + 40 * TICK_MILLIS, sentinel);
+
+        Thread.sleep(20 * TICK_MILLIS);
+
+        assertThat(handle.cancel()).isTrue();
+        assertThat(handle.cancel()).isFalse();
+        assertThat(sentinel.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(firedAt).doesNotContainKey(0);
+    }
+
+    @Test
+    void firesTimeoutsBeyondTheTopLevel() throws InterruptedException {
+        wheel = new HierarchicalTimingWheel(TICK_MILLIS, 4, 2, Runnable::run);
+        wheel.start();
+
+        long fireAt = System.currentTimeMillis() + 50 * TICK_MILLIS;
+        CountDownLatch fired = new CountDownLatch(1);
+        TimerHandle handle = schedule(0, fireAt, fired);
+
+        assertThat(fired.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(firedAt.get(0)).isBetween(fireAt, fireAt + MAX_LATENESS_MILLIS);
+        assertThat(handle.isExpired()).isTrue();
+        assertThat(handle.cancel()).isFalse();
+    }
+
+    @Test
+    void firesTimeoutsInThePastOnTheNextTick() throws InterruptedException {
+        wheel = new HierarchicalTimingWheel(TICK_MILLIS, 4, 2, Runnable::run);
+        wheel.start();
+
+        CountDownLatch fired = new CountDownLatch(1);
+        schedule(0, System.currentTimeMillis() - 60_000, fired);
+
+        assertThat(fired.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void restartsAfterStopWithPendingTimeouts() throws InterruptedException {
+        wheel = new HierarchicalTimingWheel(TICK_MILLIS, 4, 2, Runnable::run);
+        wheel.start();
+
+        long fireAt = System.currentTimeMillis() + 30 * TICK_MILLIS;
+        CountDownLatch kept = new CountDownLatch(1);
+        schedule(0, fireAt, kept);
+        TimerHandle cancelled = schedule(1, fireAt, new CountDownLatch(1));
+
+        Thread.sleep(5 * TICK_MILLIS);
+        wheel.stop();
+
+        assertThatThrownBy(() -> wheel.schedule(() -> { }, Instant.now())).isInstanceOf(SchedulingException.class);
+        assertThat(cancelled.cancel()).isTrue();
+
+        wheel.start();
+
+        CountDownLatch added = new CountDownLatch(1);
+        schedule(2, System.currentTimeMillis() + 2 * TICK_MILLIS, added);
+
+        assertThat(kept.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(added.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(firedAt.get(0)).isBetween(fireAt, fireAt + MAX_LATENESS_MILLIS);
+        assertThat(firedAt).doesNotContainKey(1);
+        assertThat(wheel.pendingCount()).isZero();
+    }
+
+    @Test
+    void rejectsInvalidGeometry() {
+        assertThatThrownBy(() -> new HierarchicalTimingWheel(0, 4, 2, Runnable::run))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HierarchicalTimingWheel(TICK_MILLIS, 6, 2, Runnable::run))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HierarchicalTimingWheel(TICK_MILLIS, 512, 7, Runnable::run))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private TimerHandle schedule(int id, long fireAtMillis, CountDownLatch fired) {
+        return wheel.schedule(() -> {
+            firedAt.put(id, System.currentTimeMillis());
+            fired.countDown();
+        }, Instant.ofEpochMilli(fireAtMillis));
+    }
+}
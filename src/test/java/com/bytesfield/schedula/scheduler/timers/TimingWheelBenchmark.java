@@ -0,0 +1,128 @@
+package com.bytesfield.schedula.scheduler.timers;
+
+import com.bytesfield.schedula.scheduler.TaskTimer;
+import com.bytesfield.schedula.scheduler.TimerHandle;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Compares the timing wheel with TaskSchedulerTimer, the previous engine, which keeps one future per timeout on a
+ * ScheduledExecutorService. Run its main method on the test classpath; for 10k, 100k and 1M pending far-off timeouts
+ * it prints, per engine, the cost of scheduling and cancelling them, the heap they hold, and how late a burst of near
+ * timeouts fires while they are pending.
+ */
+public final class TimingWheelBenchmark {
+
+    private static final int[] PENDING_TIMEOUTS = {10_000, 100_000, 1_000_000};
+    private static final int NEAR_TIMEOUTS = 100_000;
+    private static final long NEAR_SPREAD_MILLIS = 2_000;
+
+    private TimingWheelBenchmark() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        for (int round = 0; round < 2; round++) {
+            boolean report = round == 1;
+
+            for (int pending : PENDING_TIMEOUTS) {
+                run("wheel", pending, report, () -> {
+                    HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(100, 512, 4, Runnable::run);
+                    wheel.start();
+                    return new Engine(wheel, wheel::stop);
+                });
+                run("task-scheduler", pending, report, () -> {
+                    ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+                    scheduler.initialize();
+                    return new Engine(new TaskSchedulerTimer(scheduler, Runnable::run), scheduler::shutdown);
+                });
+            }
+        }
+    }
+
+    private static void run(String name, int pending, boolean report, Supplier<Engine> engines)
+            throws InterruptedException {
+        Engine engine = engines.get();
+
+        try {
+            long heapBefore = usedHeap();
+            Instant farAway = Instant.now().plusSeconds(3600);
+            TimerHandle[] handles = new TimerHandle[pending];
+
+            long began = System.nanoTime();
+
+            for (int i = 0; i < pending; i++) {
+                handles[i] = engine.timer().schedule(() -> { }, farAway.plusMillis(i % 60_000));
+            }
+
+            long scheduleNanos = System.nanoTime() - began;
+            long heapHeld = usedHeap() - heapBefore;
+            long[] lateness = fireNearTimeouts(engine.timer());
+
+            began = System.nanoTime();
+
+            for (TimerHandle handle : handles) {
+                handle.cancel();
+            }
+
+            long cancelNanos = System.nanoTime() - began;
+
+            if (report) {
+                System.out.printf("%-15s %,9d pending: schedule %6.0f ns, cancel %6.0f ns, %5.1f MB, "
+                                + "fire lag p50 %d ms, p99 %d ms, max %d ms%n",
+                        name, pending, (double) scheduleNanos / pending, (double) cancelNanos / pending,
+                        heapHeld / (double) (1 << 20), percentile(lateness, 0.5), percentile(lateness, 0.99),
+                        lateness[lateness.length - 1]);
+            }
+        } finally {
+            engine.stop().run();
+        }
+    }
+
+    private static long[] fireNearTimeouts(TaskTimer timer) throws InterruptedException {
+        long[] lateness = new long[NEAR_TIMEOUTS];
+        AtomicInteger index = new AtomicInteger();
+        CountDownLatch fired = new CountDownLatch(NEAR_TIMEOUTS);
+        long start = System.currentTimeMillis() + 100;
+
+        for (int i = 0; i < NEAR_TIMEOUTS; i++) {
+            long fireAt = start + i % NEAR_SPREAD_MILLIS;
+
+            timer.schedule(() -> {
+                lateness[index.getAndIncrement()] = System.currentTimeMillis() - fireAt;
+                fired.countDown();
+            }, Instant.ofEpochMilli(fireAt));
+        }
+
+        if (!fired.await(30, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Only " + index.get() + " of " + NEAR_TIMEOUTS + " timeouts fired");
+        }
+
+        Arrays.sort(lateness);
+
+        return lateness;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(percentile * (sorted.length - 1)))];
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private record Engine(TaskTimer timer, Runnable stop) {
+    }
+}
@@ -0,0 +1,103 @@
+package com.bytesfield.schedula.utils.collections;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeficitRoundRobinQueueTest {
+
+    @Test
+    void servesFlowsByWeightPerTurn() {
+        DeficitRoundRobinQueue<String> queue = new DeficitRoundRobinQueue<>();
+
+        for (int i = 1; i <= 4; i++) {
+            queue.add(1, 2, "a" + i);
+        }
+
+        queue.add(2, 1, "b1");
+        queue.add(2, 1, "b2");
+
+        assertThat(drain(queue)).containsExactly("a1", "a2", "b1", "a3", "a4", "b2");
+    }
+
+    @Test
+    void burstDoesNotHoldBackOtherFlows() {
+        DeficitRoundRobinQueue<String> queue = new DeficitRoundRobinQueue<>();
+
+        for (int i = 0; i < 1_000; i++) {
+            queue.add(1, 1, "burst");
+        }
+
+        queue.add(2, 1, "other");
+        queue.add(3, 1, "other");
+
+        List<String> firstPolls = List.of(queue.poll(), queue.poll(), queue.poll());
+
+        assertThat(firstPolls).containsExactly("burst", "other", "other");
+        assertThat(queue.size()).isEqualTo(999);
+    }
+
+    @Test
+    void dropsEmptyFlowsAndRequeuesThemAtTheBack() {
+        DeficitRoundRobinQueue<String> queue = new DeficitRoundRobinQueue<>();
+
+        queue.add(1, 1, "a1");
+        queue.add(2, 1, "b1");
+        queue.add(2, 1, "b2");
+
+        assertThat(queue.flowCount()).isEqualTo(2);
+        assertThat(queue.poll()).isEqualTo("a1");
+        assertThat(queue.flowCount()).isEqualTo(1);
+
+        // Flow 1 comes back behind flow 2
+        queue.add(1, 1, "a2");
+
+        assertThat(drain(queue)).containsExactly("b1", "a2", "b2");
+        assertThat(queue.flowCount()).isZero();
+        assertThat(queue.poll()).isNull();
+    }
+
+    @Test
+    void weightIsTakenFromTheItemThatCreatedTheFlow() {
+        DeficitRoundRobinQueue<String> queue = new DeficitRoundRobinQueue<>();
+
+        queue.add(1, 1, "a1");
+        queue.add(1, 5, "a2");
+        queue.add(2, 0, "b1");
+        queue.add(2, 1, "b2");
+
+        // Flow 1 keeps weight 1 and a weight below 1 counts as 1
+        assertThat(drain(queue)).containsExactly("a1", "b1", "a2", "b2");
+    }
+
+    @Test
+    void clearDropsEveryFlow() {
+        DeficitRoundRobinQueue<String> queue = new DeficitRoundRobinQueue<>();
+
+        queue.add(1, 1, "a1");
+        queue.add(2, 1, "b1");
+        queue.clear();
+
+        assertThat(queue.isEmpty()).isTrue();
+        assertThat(queue.flowCount()).isZero();
+        assertThat(queue.poll()).isNull();
+
+        queue.add(1, 1, "a2");
+
+        assertThat(drain(queue)).containsExactly("a2");
+    }
+
+    private static List<String> drain(DeficitRoundRobinQueue<String> queue) {
+        List<String> items = new ArrayList<>();
+        String item;
+
+        while ((item = queue.poll()) != null) {
+            items.add(item);
+        }
+
+        return items;
+    }
+}
@@ -0,0 +1,109 @@
+package com.bytesfield.schedula.utils.collections;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IntObjectHashMapTest {
+
+    @Test
+    void putGetAndReplace() {
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+
+        assertThat(map.put(1, "a")).isNull();
+        assertThat(map.put(-1, "b")).isNull();
+        assertThat(map.put(0, "c")).isNull();
+        assertThat(map.put(1, "d")).isEqualTo("a");
+
+        assertThat(map.get(1)).isEqualTo("d");
+        assertThat(map.get(-1)).isEqualTo("b");
+        assertThat(map.get(0)).isEqualTo("c");
+        assertThat(map.get(2)).isNull();
+        assertThat(map.size()).isEqualTo(3);
+    }
+
+    @Test
+    void removeKeepsTheRestOfTheProbeRunReachable() {
+        IntObjectHashMap<Integer> map = new IntObjectHashMap<>();
+
+        // 12 keys fill a 16-slot table up to its resize threshold, so probe runs are long and wrap around the end
+        for (int key = 0; key < 12; key++) {
+            map.put(key * 16, key);
+        }
+
+        for (int removed = 0; removed < 12; removed += 2) {
+            assertThat(map.remove(removed * 16)).isEqualTo(removed);
+        }
+
+        assertThat(map.size()).isEqualTo(6);
+
+        for (int key = 0; key < 12; key++) {
+            assertThat(map.get(key * 16)).isEqualTo(key % 2 == 0 ? null : key);
+        }
+
+        assertThat(map.remove(0)).isNull();
+    }
+
+    @Test
+    void matchesHashMapUnderRandomPutsAndRemoves() {
+        IntObjectHashMap<Integer> map = new IntObjectHashMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(25);
+
+        // A narrow key range keeps the table dense, so removals keep shifting clustered entries back
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(256) - 128;
+
+            if (random.nextBoolean()) {
+                assertThat(map.put(key, i)).isEqualTo(expected.put(key, i));
+            } else {
+                assertThat(map.remove(key)).isEqualTo(expected.remove(key));
+            }
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+
+        for (int key = -128; key < 128; key++) {
+            assertThat(map.get(key)).isEqualTo(expected.get(key));
+            assertThat(map.containsKey(key)).isEqualTo(expected.containsKey(key));
+        }
+
+        Map<Integer, Integer> visited = new HashMap<>();
+        map.forEach(visited::put);
+
+        assertThat(visited).isEqualTo(expected);
+    }
+
+    @Test
+    void growsPastTheExpectedSize() {
+        IntObjectHashMap<Integer> map = new IntObjectHashMap<>(4);
+
+        for (int key = 0; key < 10_000; key++) {
+            map.put(key, key);
+        }
+
+        assertThat(map.size()).isEqualTo(10_000);
+        assertThat(map.get(9_999)).isEqualTo(9_999);
+    }
+
+    @Test
+    void clearEmptiesTheMap() {
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+        map.put(1, "a");
+        map.clear();
+
+        assertThat(map.isEmpty()).isTrue();
+        assertThat(map.get(1)).isNull();
+    }
+
+    @Test
+    void rejectsNullValues() {
+        assertThatThrownBy(() -> new IntObjectHashMap<String>().put(1, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
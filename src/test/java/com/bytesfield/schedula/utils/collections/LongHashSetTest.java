@@ -0,0 +1,80 @@
+package com.bytesfield.schedula.utils.collections;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongHashSetTest {
+
+    @Test
+    void addsEachKeyOnce() {
+        LongHashSet set = new LongHashSet();
+
+        assertThat(set.add(42)).isTrue();
+        assertThat(set.add(42)).isFalse();
+        assertThat(set.add(Long.MIN_VALUE)).isTrue();
+        assertThat(set.add(-1)).isTrue();
+
+        assertThat(set.contains(42)).isTrue();
+        assertThat(set.contains(Long.MIN_VALUE)).isTrue();
+        assertThat(set.contains(43)).isFalse();
+        assertThat(set.size()).isEqualTo(3);
+    }
+
+    @Test
+    void tracksZeroApartFromTheEmptySlots() {
+        LongHashSet set = new LongHashSet();
+
+        assertThat(set.contains(0)).isFalse();
+        assertThat(set.add(0)).isTrue();
+        assertThat(set.add(0)).isFalse();
+        assertThat(set.contains(0)).isTrue();
+        assertThat(set.size()).isEqualTo(1);
+
+        set.clear();
+
+        assertThat(set.contains(0)).isFalse();
+        assertThat(set.isEmpty()).isTrue();
+    }
+
+    @Test
+    void matchesHashSetAcrossResizes() {
+        LongHashSet set = new LongHashSet(4);
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(25);
+
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextInt(50_000) * 0x1_0000_0001L;
+
+            assertThat(set.add(key)).isEqualTo(expected.add(key));
+        }
+
+        assertThat(set.size()).isEqualTo(expected.size());
+
+        for (long key : expected) {
+            assertThat(set.contains(key)).isTrue();
+        }
+
+        assertThat(set.contains(50_000 * 0x1_0000_0001L)).isFalse();
+    }
+
+    @Test
+    void clearKeepsTheSetUsable() {
+        LongHashSet set = new LongHashSet();
+
+        for (long key = 1; key <= 1_000; key++) {
+            set.add(key);
+        }
+
+        set.clear();
+
+        assertThat(set.isEmpty()).isTrue();
+        assertThat(set.contains(500)).isFalse();
+        assertThat(set.add(500)).isTrue();
+        assertThat(set.size()).isEqualTo(1);
+    }
+}
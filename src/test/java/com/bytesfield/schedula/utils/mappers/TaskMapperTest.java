@@ -0,0 +1,72 @@
+package com.bytesfield.schedula.utils.mappers;
+
+import com.bytesfield.schedula.dtos.requests.UpdateTaskRequest;
+import com.bytesfield.schedula.models.entities.Task;
+import com.bytesfield.schedula.models.enums.ConcurrencyPolicy;
+import com.bytesfield.schedula.models.enums.MisfirePolicy;
+import com.bytesfield.schedula.models.enums.ScheduleType;
+import com.bytesfield.schedula.models.enums.TaskPriority;
+import com.bytesfield.schedula.models.enums.TaskType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskMapperTest {
+
+    private final TaskMapper mapper = new TaskMapper() {
+    };
+
+    @Test
+    void updateKeepsSchedulingOptionsLeftOutOfTheRequest() {
+        Task task = new Task();
+        task.setSpreadWindowSeconds(30);
+        task.setPriority(TaskPriority.HIGH);
+        task.setMisfirePolicy(MisfirePolicy.FIRE_ALL_MISSED);
+        task.setConcurrencyPolicy(ConcurrencyPolicy.SKIP_IF_RUNNING);
+        task.setMaxRetries(5);
+        task.setRetryBackoffSeconds(20);
+        task.setRetryMaxAgeSeconds(600);
+        task.setExecutionTimeoutSeconds(45);
+
+        mapper.updateEntity(request(), task);
+
+        assertThat(task.getSpreadWindowSeconds()).isEqualTo(30);
+        assertThat(task.getPriority()).isEqualTo(TaskPriority.HIGH);
+        assertThat(task.getMisfirePolicy()).isEqualTo(MisfirePolicy.FIRE_ALL_MISSED);
+        assertThat(task.getConcurrencyPolicy()).isEqualTo(ConcurrencyPolicy.SKIP_IF_RUNNING);
+        assertThat(task.getMaxRetries()).isEqualTo(5);
+        assertThat(task.getRetryBackoffSeconds()).isEqualTo(20);
+        assertThat(task.getRetryMaxAgeSeconds()).isEqualTo(600);
+        assertThat(task.getExecutionTimeoutSeconds()).isEqualTo(45);
+    }
+
+    @Test
+    void updateAppliesSchedulingOptionsInTheRequest() {
+        Task task = new Task();
+        task.setMaxRetries(5);
+        task.setExecutionTimeoutSeconds(45);
+
+        UpdateTaskRequest request = request();
+        request.setSpreadWindowSeconds(60);
+        request.setMaxRetries(2);
+        request.setExecutionTimeoutSeconds(10);
+
+        mapper.updateEntity(request, task);
+
+        assertThat(task.getSpreadWindowSeconds()).isEqualTo(60);
+        assertThat(task.getMaxRetries()).isEqualTo(2);
+        assertThat(task.getExecutionTimeoutSeconds()).isEqualTo(10);
+    }
+
+    private static UpdateTaskRequest request() {
+        UpdateTaskRequest request = new UpdateTaskRequest();
+        request.setTitle("Reminder");
+        request.setType(TaskType.TIMESTAMP);
+        request.setScheduleType(ScheduleType.ONCE);
+        request.setTriggerTime(Instant.now().plusSeconds(3600));
+
+        return request;
+    }
+}